@@ -0,0 +1,206 @@
+package com.voicepoc.analytics;
+
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.event.DirtyDateRanges;
+import com.voicepoc.event.SalesDataChangedEvent;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.repository.SalesDataFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Optional in-process copy of sales_data for grouped voice queries; disabled unless analytics.columnar.enabled=true
+@Component
+public class ColumnarSalesEngine {
+    
+    private static final Logger log = LoggerFactory.getLogger(ColumnarSalesEngine.class);
+    
+    private static final String SELECT_COLUMNS =
+        "SELECT sales_date, category, region, product_name, customer_name, quantity, total_amount FROM sales_data ";
+    
+    @Value("${analytics.columnar.enabled:false}")
+    private volatile boolean enabled = false;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    private volatile ColumnarSnapshot snapshot;
+    
+    private final DirtyDateRanges dirtyRanges = new DirtyDateRanges();
+    private final Object refreshLock = new Object();
+    
+    private final AtomicLong queries = new AtomicLong();
+    
+    public ColumnarSalesEngine(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               @Value("${analytics.columnar.fetch-size:10000}") int fetchSize) {
+        // A dedicated template so the large fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    // Returns null when the engine cannot answer, so the caller falls back to the database
+    public List<SalesSummary> aggregate(SalesDimension dimension, SalesDataFilter filter) {
+        if (!enabled || snapshot == null) {
+            return null;
+        }
+        if (dirtyRanges.overlaps(filter.getStartDate(), filter.getEndDate())) {
+            refresh();
+        }
+        ColumnarSnapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        queries.incrementAndGet();
+        return current.aggregate(dimension, filter);
+    }
+    
+    // One summary list per period, all read from the same snapshot so a refresh cannot land between periods
+    public List<List<SalesSummary>> aggregatePeriods(SalesDimension dimension, SalesDataFilter filter,
+                                                     List<DateRange> periods) {
+        if (!enabled || snapshot == null) {
+            return null;
+        }
+        if (periods.stream().anyMatch(period -> dirtyRanges.overlaps(period.getStartDate(), period.getEndDate()))) {
+            refresh();
+        }
+        ColumnarSnapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        queries.incrementAndGet();
+        List<List<SalesSummary>> results = new ArrayList<>();
+        for (DateRange period : periods) {
+            results.add(current.aggregate(dimension, filter.withDates(period.getStartDate(), period.getEndDate())));
+        }
+        return results;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesDataChanged(SalesDataChangedEvent event) {
+        if (enabled) {
+            dirtyRanges.add(event.getFromDate(), event.getToDate());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (refreshLock) {
+            // Anything changed before this point is covered by the full read
+            dirtyRanges.clear();
+            try {
+                long started = System.nanoTime();
+                Integer expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales_data", Integer.class);
+                ColumnarSnapshotBuilder builder = new ColumnarSnapshotBuilder(expected != null ? expected : 0);
+                readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(SELECT_COLUMNS + "ORDER BY sales_date", rs -> {
+                        append(builder, rs);
+                    }));
+                snapshot = builder.build();
+                log.info("Columnar snapshot loaded {} rows (~{} KB) in {} ms", snapshot.getRowCount(),
+                    snapshot.estimatedBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.warn("Columnar snapshot unavailable, disabling it: {}", e.getMessage());
+                enabled = false;
+                snapshot = null;
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.columnar.refresh-interval-ms:5000}",
+               initialDelayString = "${analytics.columnar.refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        if (enabled && snapshot != null) {
+            refresh();
+        }
+    }
+    
+    // Splices freshly read rows for every dirty day range into a copy of the current snapshot
+    public void refresh() {
+        synchronized (refreshLock) {
+            List<DateRange> ranges = dirtyRanges.drain();
+            try {
+                if (ranges.isEmpty() || snapshot == null) {
+                    return;
+                }
+                long started = System.nanoTime();
+                ColumnarSnapshot current = snapshot;
+                ColumnarSnapshotBuilder builder = new ColumnarSnapshotBuilder(current);
+                int row = 0;
+                for (DateRange range : ranges) {
+                    long fromDay = range.getStartDate().toEpochDay();
+                    long toDay = range.getEndDate().toEpochDay();
+                    while (row < current.rowCount && current.epochDay[row] < fromDay) {
+                        builder.copy(current, row++);
+                    }
+                    while (row < current.rowCount && current.epochDay[row] <= toDay) {
+                        row++;
+                    }
+                    readOnlyTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.query(SELECT_COLUMNS + "WHERE sales_date BETWEEN ? AND ? ORDER BY sales_date",
+                            rs -> {
+                                append(builder, rs);
+                            },
+                            Date.valueOf(range.getStartDate()), Date.valueOf(range.getEndDate())));
+                }
+                while (row < current.rowCount) {
+                    builder.copy(current, row++);
+                }
+                snapshot = builder.build();
+                log.debug("Columnar snapshot refreshed {} ranges in {} ms", ranges.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.warn("Columnar snapshot refresh failed: {}", e.getMessage());
+                dirtyRanges.addAll(ranges);
+                throw e;
+            } finally {
+                dirtyRanges.finish();
+            }
+        }
+    }
+    
+    private static void append(ColumnarSnapshotBuilder builder, ResultSet rs) throws SQLException {
+        BigDecimal amount = rs.getBigDecimal(7);
+        builder.add(
+            (int) rs.getDate(1).toLocalDate().toEpochDay(),
+            rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getInt(6),
+            amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0L
+        );
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getQueries() {
+        return queries.get();
+    }
+    
+    public ColumnarSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,170 @@
+package com.voicepoc.analytics;
+
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.repository.SalesDataFilter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable column-per-field copy of sales_data, sorted by day. Strings are dictionary codes,
+// amounts are cents, and dayOffsets turns any date range into one contiguous row range
+public class ColumnarSnapshot {
+    
+    // codeOf results for an absent filter and for a value the snapshot has never seen
+    private static final int ANY = -1;
+    private static final int MISSING = -2;
+    
+    final int rowCount;
+    final int[] epochDay;
+    final byte[] category;
+    final byte[] region;
+    final short[] product;
+    final short[] customer;
+    final int[] quantity;
+    final long[] amountCents;
+    
+    final String[] categories;
+    final String[] regions;
+    final String[] products;
+    final String[] customers;
+    
+    // Rows of day d are [dayOffsets[d - firstDay], dayOffsets[d - firstDay + 1])
+    final int firstDay;
+    final int[] dayOffsets;
+    
+    ColumnarSnapshot(int rowCount, int[] epochDay, byte[] category, byte[] region, short[] product, short[] customer,
+                     int[] quantity, long[] amountCents, String[] categories, String[] regions, String[] products,
+                     String[] customers, int firstDay, int[] dayOffsets) {
+        this.rowCount = rowCount;
+        this.epochDay = epochDay;
+        this.category = category;
+        this.region = region;
+        this.product = product;
+        this.customer = customer;
+        this.quantity = quantity;
+        this.amountCents = amountCents;
+        this.categories = categories;
+        this.regions = regions;
+        this.products = products;
+        this.customers = customers;
+        this.firstDay = firstDay;
+        this.dayOffsets = dayOffsets;
+    }
+    
+    // Same groups and ordering as SalesDataRepository.aggregateBy
+    public List<SalesSummary> aggregate(SalesDimension dimension, SalesDataFilter filter) {
+        int wantedCategory = codeOf(categories, filter.getCategory());
+        int wantedRegion = codeOf(regions, filter.getRegion());
+        int wantedProduct = codeOf(products, filter.getProductName());
+        int wantedCustomer = codeOf(customers, filter.getCustomerName());
+        if (wantedCategory == MISSING || wantedRegion == MISSING || wantedProduct == MISSING || wantedCustomer == MISSING) {
+            return new ArrayList<>();
+        }
+        
+        int days = dayOffsets.length - 1;
+        int fromDay = filter.getStartDate() == null ? firstDay
+            : (int) Math.max(firstDay, filter.getStartDate().toEpochDay());
+        int toDay = filter.getEndDate() == null ? firstDay + days - 1
+            : (int) Math.min(firstDay + days - 1, filter.getEndDate().toEpochDay());
+        if (rowCount == 0 || fromDay > toDay) {
+            return new ArrayList<>();
+        }
+        
+        int firstMonth = monthIndex(fromDay);
+        int groups = switch (dimension) {
+            case CATEGORY -> categories.length;
+            case REGION -> regions.length;
+            case PRODUCT -> products.length;
+            case CUSTOMER -> customers.length;
+            case MONTH -> monthIndex(toDay) - firstMonth + 1;
+        };
+        long[] counts = new long[groups];
+        long[] quantities = new long[groups];
+        long[] cents = new long[groups];
+        
+        // Walked day by day so the month key is computed once per day rather than per row
+        for (int day = fromDay; day <= toDay; day++) {
+            int start = dayOffsets[day - firstDay];
+            int end = dayOffsets[day - firstDay + 1];
+            if (start == end) {
+                continue;
+            }
+            int month = dimension == SalesDimension.MONTH ? monthIndex(day) - firstMonth : 0;
+            for (int row = start; row < end; row++) {
+                if ((wantedCategory >= 0 && (category[row] & 0xFF) != wantedCategory)
+                        || (wantedRegion >= 0 && (region[row] & 0xFF) != wantedRegion)
+                        || (wantedProduct >= 0 && (product[row] & 0xFFFF) != wantedProduct)
+                        || (wantedCustomer >= 0 && (customer[row] & 0xFFFF) != wantedCustomer)) {
+                    continue;
+                }
+                int group = switch (dimension) {
+                    case CATEGORY -> category[row] & 0xFF;
+                    case REGION -> region[row] & 0xFF;
+                    case PRODUCT -> product[row] & 0xFFFF;
+                    case CUSTOMER -> customer[row] & 0xFFFF;
+                    case MONTH -> month;
+                };
+                counts[group]++;
+                quantities[group] += quantity[row];
+                cents[group] += amountCents[row];
+            }
+        }
+        
+        List<SalesSummary> summaries = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            if (counts[group] == 0) {
+                continue;
+            }
+            String key = switch (dimension) {
+                case CATEGORY -> categories[group];
+                case REGION -> regions[group];
+                case PRODUCT -> products[group];
+                case CUSTOMER -> customers[group];
+                case MONTH -> {
+                    int month = firstMonth + group;
+                    yield String.format("%04d-%02d", month / 12, month % 12 + 1);
+                }
+            };
+            summaries.add(new SalesSummary(key, counts[group], quantities[group], BigDecimal.valueOf(cents[group], 2)));
+        }
+        if (dimension != SalesDimension.MONTH) {
+            summaries.sort(Comparator.comparing(SalesSummary::getTotalRevenue).reversed());
+        }
+        return summaries;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    public LocalDate getFirstDate() {
+        return rowCount == 0 ? null : LocalDate.ofEpochDay(epochDay[0]);
+    }
+    
+    public LocalDate getLastDate() {
+        return rowCount == 0 ? null : LocalDate.ofEpochDay(epochDay[rowCount - 1]);
+    }
+    
+    // Column arrays plus the day index; dictionaries are negligible at this cardinality
+    public long estimatedBytes() {
+        return (long) epochDay.length * (4 + 1 + 1 + 2 + 2 + 4 + 8) + (long) dayOffsets.length * 4;
+    }
+    
+    private static int codeOf(String[] dictionary, String value) {
+        if (value == null) {
+            return ANY;
+        }
+        int index = Arrays.asList(dictionary).indexOf(value);
+        return index >= 0 ? index : MISSING;
+    }
+    
+    private static int monthIndex(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,156 @@
+package com.voicepoc.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Accumulates rows in non-decreasing day order into growable primitive columns
+class ColumnarSnapshotBuilder {
+    
+    private int rowCount;
+    private int[] epochDay;
+    private byte[] category;
+    private byte[] region;
+    private short[] product;
+    private short[] customer;
+    private int[] quantity;
+    private long[] amountCents;
+    
+    private final Dictionary categories;
+    private final Dictionary regions;
+    private final Dictionary products;
+    private final Dictionary customers;
+    
+    ColumnarSnapshotBuilder(int expectedRows) {
+        allocate(Math.max(16, expectedRows));
+        categories = new Dictionary(0xFF + 1);
+        regions = new Dictionary(0xFF + 1);
+        products = new Dictionary(0xFFFF + 1);
+        customers = new Dictionary(0xFFFF + 1);
+    }
+    
+    // Starts from an existing snapshot's dictionaries so its codes can be copied across unchanged
+    ColumnarSnapshotBuilder(ColumnarSnapshot base) {
+        allocate(Math.max(16, base.rowCount));
+        categories = new Dictionary(0xFF + 1, base.categories);
+        regions = new Dictionary(0xFF + 1, base.regions);
+        products = new Dictionary(0xFFFF + 1, base.products);
+        customers = new Dictionary(0xFFFF + 1, base.customers);
+    }
+    
+    void add(int day, String categoryValue, String regionValue, String productValue, String customerValue,
+             int quantityValue, long cents) {
+        ensureCapacity();
+        checkOrder(day);
+        epochDay[rowCount] = day;
+        category[rowCount] = (byte) categories.code(categoryValue);
+        region[rowCount] = (byte) regions.code(regionValue);
+        product[rowCount] = (short) products.code(productValue);
+        customer[rowCount] = (short) customers.code(customerValue);
+        quantity[rowCount] = quantityValue;
+        amountCents[rowCount] = cents;
+        rowCount++;
+    }
+    
+    void copy(ColumnarSnapshot source, int row) {
+        ensureCapacity();
+        checkOrder(source.epochDay[row]);
+        epochDay[rowCount] = source.epochDay[row];
+        category[rowCount] = source.category[row];
+        region[rowCount] = source.region[row];
+        product[rowCount] = source.product[row];
+        customer[rowCount] = source.customer[row];
+        quantity[rowCount] = source.quantity[row];
+        amountCents[rowCount] = source.amountCents[row];
+        rowCount++;
+    }
+    
+    ColumnarSnapshot build() {
+        int firstDay = rowCount == 0 ? 0 : epochDay[0];
+        int days = rowCount == 0 ? 0 : epochDay[rowCount - 1] - firstDay + 1;
+        int[] dayOffsets = new int[days + 1];
+        int row = 0;
+        for (int d = 0; d < days; d++) {
+            dayOffsets[d] = row;
+            while (row < rowCount && epochDay[row] == firstDay + d) {
+                row++;
+            }
+        }
+        dayOffsets[days] = rowCount;
+        
+        // Trimmed so the snapshot holds no slack from the growth policy
+        return new ColumnarSnapshot(rowCount,
+            Arrays.copyOf(epochDay, rowCount), Arrays.copyOf(category, rowCount), Arrays.copyOf(region, rowCount),
+            Arrays.copyOf(product, rowCount), Arrays.copyOf(customer, rowCount), Arrays.copyOf(quantity, rowCount),
+            Arrays.copyOf(amountCents, rowCount),
+            categories.values(), regions.values(), products.values(), customers.values(),
+            firstDay, dayOffsets);
+    }
+    
+    private void checkOrder(int day) {
+        if (rowCount > 0 && day < epochDay[rowCount - 1]) {
+            throw new IllegalStateException("Rows must arrive in sales_date order");
+        }
+    }
+    
+    private void allocate(int capacity) {
+        epochDay = new int[capacity];
+        category = new byte[capacity];
+        region = new byte[capacity];
+        product = new short[capacity];
+        customer = new short[capacity];
+        quantity = new int[capacity];
+        amountCents = new long[capacity];
+    }
+    
+    private void ensureCapacity() {
+        if (rowCount < epochDay.length) {
+            return;
+        }
+        int capacity = epochDay.length + (epochDay.length >> 1);
+        epochDay = Arrays.copyOf(epochDay, capacity);
+        category = Arrays.copyOf(category, capacity);
+        region = Arrays.copyOf(region, capacity);
+        product = Arrays.copyOf(product, capacity);
+        customer = Arrays.copyOf(customer, capacity);
+        quantity = Arrays.copyOf(quantity, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+    }
+    
+    // Append-only value-to-code mapping; codes never change once assigned
+    private static class Dictionary {
+        private final int limit;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        
+        Dictionary(int limit) {
+            this.limit = limit;
+        }
+        
+        Dictionary(int limit, String[] existing) {
+            this(limit);
+            for (String value : existing) {
+                code(value);
+            }
+        }
+        
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (values.size() >= limit) {
+                throw new IllegalStateException("More than " + limit + " distinct values for a dictionary column");
+            }
+            codes.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+        
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.voicepoc.analytics;
+
+import java.util.Arrays;
+
+// Mergeable distinct-count sketch with 2^precision registers and a relative standard error of 1.04 / sqrt(2^precision).
+// Small sketches keep only the registers they have set, sorted by index, and switch to a dense array once that
+// would be larger; a day of one category and region usually stays sparse
+public class HyperLogLog {
+    
+    private final int precision;
+    private final int registerCount;
+    
+    // (index << 6) | rank, sorted by index, while registers is null
+    private int[] sparse = new int[4];
+    private int sparseSize;
+    private byte[] registers;
+    
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 18, got " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+    }
+    
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits plus one; the guard bit caps it at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        set(index, rank);
+    }
+    
+    // Folds another sketch of the same precision into this one, which becomes dense
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of precision " + precision
+                + " and " + other.precision);
+        }
+        densify();
+        if (other.registers != null) {
+            for (int i = 0; i < registerCount; i++) {
+                if (other.registers[i] > registers[i]) {
+                    registers[i] = other.registers[i];
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                int index = other.sparse[i] >>> 6;
+                byte rank = (byte) (other.sparse[i] & 0x3F);
+                if (rank > registers[index]) {
+                    registers[index] = rank;
+                }
+            }
+        }
+    }
+    
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (registers != null) {
+            for (byte rank : registers) {
+                sum += 1.0 / (1L << rank);
+                zeros += rank == 0 ? 1 : 0;
+            }
+        } else {
+            zeros = registerCount - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & 0x3F));
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+        // Linear counting is far more accurate while many registers are still empty
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registerCount);
+    }
+    
+    public long estimatedBytes() {
+        return registers != null ? registerCount : 4L * sparse.length;
+    }
+    
+    // Drops the spare capacity of a finished sparse sketch
+    public void trim() {
+        if (registers == null && sparse.length > sparseSize) {
+            sparse = Arrays.copyOf(sparse, Math.max(1, sparseSize));
+        }
+    }
+    
+    private void set(int index, int rank) {
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> 6;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                if (rank > (sparse[mid] & 0x3F)) {
+                    sparse[mid] = (index << 6) | rank;
+                }
+                return;
+            }
+        }
+        // A sparse entry costs four bytes against one per dense register
+        if (sparseSize + 1 > registerCount / 4) {
+            densify();
+            set(index, rank);
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, low, sparse, low + 1, sparseSize - low);
+        sparse[low] = (index << 6) | rank;
+        sparseSize++;
+    }
+    
+    private void densify() {
+        if (registers != null) {
+            return;
+        }
+        registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 6] = (byte) (sparse[i] & 0x3F);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+    
+    // FNV-1a over the characters, then the MurmurHash3 finaliser to spread the bits HyperLogLog reads
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53fca87L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,310 @@
+package com.voicepoc.analytics;
+
+import com.voicepoc.event.DirtyDateRanges;
+import com.voicepoc.event.SalesDataChangedEvent;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.repository.SalesDataFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Optional per-day sketches of sales_data for distinct-count and top-N questions; disabled unless
+// analytics.sketches.enabled=true. Each day keeps one cell per category and region holding its exact row count,
+// HyperLogLog sketches of customers and products, and Space-Saving summaries of revenue by customer and product.
+// Cells of any date range and category/region filter merge into one answer without reading sales_data
+@Component
+public class SalesSketchEngine {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesSketchEngine.class);
+    
+    private static final String SELECT_COLUMNS =
+        "SELECT sales_date, category, region, product_name, customer_name, total_amount FROM sales_data ";
+    
+    @Value("${analytics.sketches.enabled:false}")
+    private volatile boolean enabled = false;
+    
+    // 2^precision registers per merged sketch; 12 gives a standard error of 1.6%
+    @Value("${analytics.sketches.hll-precision:12}")
+    private int precision = 12;
+    
+    // Items tracked per cell; top-N questions for a larger N are answered exactly
+    @Value("${analytics.sketches.top-capacity:64}")
+    private int topCapacity = 64;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    // Replaced a day at a time, so readers never see a half-built day
+    private final NavigableMap<LocalDate, List<Cell>> days = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+    
+    private final DirtyDateRanges dirtyRanges = new DirtyDateRanges();
+    private final Object refreshLock = new Object();
+    
+    private final AtomicLong queries = new AtomicLong();
+    
+    public SalesSketchEngine(DataSource dataSource, PlatformTransactionManager transactionManager,
+                             @Value("${analytics.sketches.fetch-size:10000}") int fetchSize) {
+        // A dedicated template so the large fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    // Sketches only cover whole category/region cells, so product and customer filters need sales_data
+    public boolean canAnswer(SalesDataFilter filter) {
+        return enabled && loaded && filter.getProductName() == null && filter.getCustomerName() == null;
+    }
+    
+    public int getTopCapacity() {
+        return topCapacity;
+    }
+    
+    // Exact matching row count, or null when the sketches cannot answer for this filter
+    public Long matchingRows(SalesDataFilter filter) {
+        List<Cell> cells = cells(filter);
+        if (cells == null) {
+            return null;
+        }
+        long rows = 0;
+        for (Cell cell : cells) {
+            rows += cell.rows;
+        }
+        return rows;
+    }
+    
+    // Merged distinct-count sketch of customers or products, or null when the sketches cannot answer
+    public HyperLogLog distinct(SalesDimension dimension, SalesDataFilter filter) {
+        List<Cell> cells = cells(filter);
+        if (cells == null || (dimension != SalesDimension.CUSTOMER && dimension != SalesDimension.PRODUCT)) {
+            return null;
+        }
+        queries.incrementAndGet();
+        HyperLogLog merged = new HyperLogLog(precision);
+        for (Cell cell : cells) {
+            merged.merge(dimension == SalesDimension.CUSTOMER ? cell.customers : cell.products);
+        }
+        return merged;
+    }
+    
+    // Merged revenue summary in cents by customer or product, or null when the sketches cannot answer
+    public SpaceSaving topByRevenue(SalesDimension dimension, SalesDataFilter filter) {
+        List<Cell> cells = cells(filter);
+        if (cells == null || (dimension != SalesDimension.CUSTOMER && dimension != SalesDimension.PRODUCT)) {
+            return null;
+        }
+        queries.incrementAndGet();
+        List<SpaceSaving> summaries = new ArrayList<>(cells.size());
+        for (Cell cell : cells) {
+            summaries.add(dimension == SalesDimension.CUSTOMER ? cell.customerRevenue : cell.productRevenue);
+        }
+        return SpaceSaving.merge(summaries, topCapacity);
+    }
+    
+    private List<Cell> cells(SalesDataFilter filter) {
+        if (!canAnswer(filter)) {
+            return null;
+        }
+        LocalDate startDate = filter.getStartDate() != null ? filter.getStartDate() : LocalDate.MIN;
+        LocalDate endDate = filter.getEndDate() != null ? filter.getEndDate() : LocalDate.MAX;
+        if (dirtyRanges.overlaps(startDate, endDate)) {
+            refresh();
+        }
+        List<Cell> matching = new ArrayList<>();
+        for (List<Cell> day : days.subMap(startDate, true, endDate, true).values()) {
+            for (Cell cell : day) {
+                if ((filter.getCategory() == null || filter.getCategory().equals(cell.category))
+                        && (filter.getRegion() == null || filter.getRegion().equals(cell.region))) {
+                    matching.add(cell);
+                }
+            }
+        }
+        return matching;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesDataChanged(SalesDataChangedEvent event) {
+        if (enabled) {
+            dirtyRanges.add(event.getFromDate(), event.getToDate());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (refreshLock) {
+            // Anything changed before this point is covered by the full read
+            dirtyRanges.clear();
+            try {
+                long started = System.nanoTime();
+                Map<LocalDate, List<Cell>> built = read(SELECT_COLUMNS + "ORDER BY sales_date");
+                days.clear();
+                days.putAll(built);
+                loaded = true;
+                log.info("Sales sketches built for {} days (~{} KB) in {} ms", days.size(), estimatedBytes() / 1024,
+                    (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.warn("Sales sketches unavailable, disabling them: {}", e.getMessage());
+                enabled = false;
+                days.clear();
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.sketches.refresh-interval-ms:5000}",
+               initialDelayString = "${analytics.sketches.refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        if (enabled && loaded) {
+            refresh();
+        }
+    }
+    
+    // Rebuilds the cells of every dirty day range; sketches cannot forget rows, so changed days are re-read whole
+    public void refresh() {
+        synchronized (refreshLock) {
+            List<DateRange> ranges = dirtyRanges.drain();
+            try {
+                for (DateRange range : ranges) {
+                    Map<LocalDate, List<Cell>> built = read(SELECT_COLUMNS
+                        + "WHERE sales_date BETWEEN ? AND ? ORDER BY sales_date",
+                        Date.valueOf(range.getStartDate()), Date.valueOf(range.getEndDate()));
+                    for (LocalDate day = range.getStartDate(); !day.isAfter(range.getEndDate()); day = day.plusDays(1)) {
+                        List<Cell> cells = built.get(day);
+                        if (cells != null) {
+                            days.put(day, cells);
+                        } else {
+                            days.remove(day);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Sales sketch refresh failed: {}", e.getMessage());
+                dirtyRanges.addAll(ranges);
+                throw e;
+            } finally {
+                dirtyRanges.finish();
+            }
+        }
+    }
+    
+    private Map<LocalDate, List<Cell>> read(String sql, Object... args) {
+        Map<LocalDate, List<Cell>> built = new HashMap<>();
+        // One String per distinct value, shared by every summary that keeps it
+        Map<String, String> values = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Map<String, Cell> current = new LinkedHashMap<>();
+            LocalDate[] currentDay = {null};
+            jdbcTemplate.query(sql, rs -> {
+                LocalDate day = rs.getDate(1).toLocalDate();
+                if (!day.equals(currentDay[0])) {
+                    finishDay(built, currentDay[0], current);
+                    currentDay[0] = day;
+                }
+                add(current, values, rs);
+            }, args);
+            finishDay(built, currentDay[0], current);
+        });
+        return built;
+    }
+    
+    private void add(Map<String, Cell> cells, Map<String, String> values, ResultSet rs) throws SQLException {
+        String category = shared(values, rs.getString(2));
+        String region = shared(values, rs.getString(3));
+        String product = shared(values, rs.getString(4));
+        String customer = shared(values, rs.getString(5));
+        BigDecimal amount = rs.getBigDecimal(6);
+        long cents = amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0L;
+        
+        Cell cell = cells.computeIfAbsent(category + '\u0000' + region, k -> new Cell(category, region));
+        cell.rows++;
+        cell.customers.add(customer);
+        cell.products.add(product);
+        cell.customerRevenue.add(customer, cents);
+        cell.productRevenue.add(product, cents);
+    }
+    
+    private static String shared(Map<String, String> values, String value) {
+        return value != null ? values.computeIfAbsent(value, v -> v) : null;
+    }
+    
+    private static void finishDay(Map<LocalDate, List<Cell>> built, LocalDate day, Map<String, Cell> cells) {
+        if (day == null || cells.isEmpty()) {
+            return;
+        }
+        for (Cell cell : cells.values()) {
+            cell.customers.trim();
+            cell.products.trim();
+            cell.customerRevenue.freeze();
+            cell.productRevenue.freeze();
+        }
+        built.put(day, List.copyOf(cells.values()));
+        cells.clear();
+    }
+    
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (List<Cell> day : days.values()) {
+            for (Cell cell : day) {
+                bytes += 48 + cell.customers.estimatedBytes() + cell.products.estimatedBytes()
+                    + cell.customerRevenue.estimatedBytes() + cell.productRevenue.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getQueries() {
+        return queries.get();
+    }
+    
+    public int getDayCount() {
+        return days.size();
+    }
+    
+    // One day of one category and region
+    private class Cell {
+        final String category;
+        final String region;
+        long rows;
+        final HyperLogLog customers = new HyperLogLog(precision);
+        final HyperLogLog products = new HyperLogLog(precision);
+        final SpaceSaving customerRevenue = new SpaceSaving(topCapacity);
+        final SpaceSaving productRevenue = new SpaceSaving(topCapacity);
+        
+        Cell(String category, String region) {
+            this.category = category;
+            this.region = region;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.voicepoc.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Weighted Space-Saving heavy-hitter summary over at most `capacity` items. Each monitored item has a weight that
+// never undercounts and an error that bounds the overcount; any item not monitored weighs at most the floor.
+// Summaries merge by adding weights, where an item missing from one side is charged that side's floor
+public class SpaceSaving {
+    
+    private final int capacity;
+    
+    private String[] items;
+    private long[] weights;
+    private long[] errors;
+    private int size;
+    private long floor;
+    
+    // Position of each item while the summary is still being added to; dropped by freeze()
+    private Map<String, Integer> positions = new HashMap<>();
+    
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Space-Saving capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+        int initial = Math.min(capacity, 16);
+        this.items = new String[initial];
+        this.weights = new long[initial];
+        this.errors = new long[initial];
+    }
+    
+    public void add(String item, long weight) {
+        if (item == null) {
+            return;
+        }
+        if (positions == null) {
+            throw new IllegalStateException("Space-Saving summary is frozen");
+        }
+        Integer position = positions.get(item);
+        if (position != null) {
+            weights[position] += weight;
+            return;
+        }
+        if (size < capacity) {
+            if (size == items.length) {
+                int grown = Math.min(capacity, items.length * 2);
+                items = Arrays.copyOf(items, grown);
+                weights = Arrays.copyOf(weights, grown);
+                errors = Arrays.copyOf(errors, grown);
+            }
+            // Its earlier weight, if any, was never seen but cannot exceed the floor
+            put(size++, item, floor + weight, floor);
+            return;
+        }
+        // Full: the lightest item is evicted and the newcomer inherits its weight as error
+        int lightest = 0;
+        for (int i = 1; i < size; i++) {
+            if (weights[i] < weights[lightest]) {
+                lightest = i;
+            }
+        }
+        long evicted = weights[lightest];
+        positions.remove(items[lightest]);
+        floor = Math.max(floor, evicted);
+        put(lightest, item, evicted + weight, evicted);
+    }
+    
+    // Releases the lookup map and spare capacity once a summary will only be read and merged
+    public void freeze() {
+        positions = null;
+        if (items.length > size) {
+            items = Arrays.copyOf(items, size);
+            weights = Arrays.copyOf(weights, size);
+            errors = Arrays.copyOf(errors, size);
+        }
+    }
+    
+    // One merge across any number of summaries, trimmed to capacity once at the end rather than after each pair
+    public static SpaceSaving merge(List<SpaceSaving> summaries, int capacity) {
+        long totalFloor = 0;
+        // weight, error and the floors of the summaries that monitored the item
+        Map<String, long[]> merged = new HashMap<>();
+        for (SpaceSaving summary : summaries) {
+            totalFloor += summary.floor;
+            for (int i = 0; i < summary.size; i++) {
+                long[] totals = merged.computeIfAbsent(summary.items[i], k -> new long[3]);
+                totals[0] += summary.weights[i];
+                totals[1] += summary.errors[i];
+                totals[2] += summary.floor;
+            }
+        }
+        
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(merged.entrySet());
+        for (Map.Entry<String, long[]> entry : entries) {
+            long[] totals = entry.getValue();
+            long unmonitored = totalFloor - totals[2];
+            totals[0] += unmonitored;
+            totals[1] += unmonitored;
+        }
+        entries.sort(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed()
+            .thenComparing(Map.Entry::getKey));
+        
+        SpaceSaving result = new SpaceSaving(capacity);
+        int kept = Math.min(capacity, entries.size());
+        result.items = new String[kept];
+        result.weights = new long[kept];
+        result.errors = new long[kept];
+        for (int i = 0; i < kept; i++) {
+            result.items[i] = entries.get(i).getKey();
+            result.weights[i] = entries.get(i).getValue()[0];
+            result.errors[i] = entries.get(i).getValue()[1];
+        }
+        result.size = kept;
+        // Trimmed items may be heavier than the summed floors
+        result.floor = kept < entries.size() ? Math.max(totalFloor, entries.get(kept).getValue()[0]) : totalFloor;
+        result.positions = null;
+        return result;
+    }
+    
+    // Heaviest first; an item's true weight lies between weight - error and weight
+    public List<Counter> top(int n) {
+        List<Counter> counters = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            counters.add(new Counter(items[i], weights[i], errors[i]));
+        }
+        counters.sort(Comparator.comparingLong(Counter::getWeight).reversed().thenComparing(Counter::getItem));
+        return counters.size() > n ? new ArrayList<>(counters.subList(0, n)) : counters;
+    }
+    
+    public long getFloor() {
+        return floor;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public long estimatedBytes() {
+        return 24L * items.length;
+    }
+    
+    private void put(int position, String item, long weight, long error) {
+        items[position] = item;
+        weights[position] = weight;
+        errors[position] = error;
+        positions.put(item, position);
+    }
+    
+    public static class Counter {
+        private final String item;
+        private final long weight;
+        private final long error;
+        
+        Counter(String item, long weight, long error) {
+            this.item = item;
+            this.weight = weight;
+            this.error = error;
+        }
+        
+        public String getItem() {
+            return item;
+        }
+        
+        public long getWeight() {
+            return weight;
+        }
+        
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.voicepoc.config;
+
+import com.voicepoc.controller.VoiceTranscriptHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    
+    @Autowired
+    private VoiceTranscriptHandler voiceTranscriptHandler;
+    
+    // Same open origin policy as the REST controllers
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(voiceTranscriptHandler, "/api/voice/stream").setAllowedOrigins("*");
+    }
+}
@@ -1,14 +1,23 @@
 package com.voicepoc.controller;
 
+import com.voicepoc.dto.SalesDataPage;
+import com.voicepoc.dto.SalesPartition;
 import com.voicepoc.model.SalesData;
 import com.voicepoc.repository.SalesDataRepository;
+import com.voicepoc.service.SalesDataService;
+import com.voicepoc.service.SalesPartitionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sales")
@@ -18,18 +27,38 @@ public class SalesDataController {
     @Autowired
     private SalesDataRepository salesDataRepository;
     
+    @Autowired
+    private SalesDataService salesDataService;
+    
+    @Autowired
+    private SalesPartitionService salesPartitionService;
+    
+    // Pages are ordered by (salesDate, id); pass nextCursor back as cursor to continue
     @GetMapping("/data")
-    public ResponseEntity<List<SalesData>> getAllSalesData() {
-        List<SalesData> salesData = salesDataRepository.findAll();
-        return ResponseEntity.ok(salesData);
+    public ResponseEntity<SalesDataPage> getAllSalesData(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(salesDataService.findPage(null, null, cursor, limit));
     }
     
     @GetMapping("/data/date-range")
-    public ResponseEntity<List<SalesData>> getSalesDataByDateRange(
+    public ResponseEntity<SalesDataPage> getSalesDataByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<SalesData> salesData = salesDataRepository.findSalesDataInDateRange(startDate, endDate);
-        return ResponseEntity.ok(salesData);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(salesDataService.findPage(startDate, endDate, cursor, limit));
+    }
+    
+    // Newline-delimited JSON of every matching row, streamed straight from a database cursor
+    @GetMapping(value = "/data/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamSalesData(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        StreamingResponseBody body = out -> salesDataService.writeNdjson(startDate, endDate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
     
     @GetMapping("/data/category/{category}")
@@ -38,4 +67,30 @@ public class SalesDataController {
             category, LocalDate.now().minusMonths(12), LocalDate.now());
         return ResponseEntity.ok(salesData);
     }
+    
+    // Monthly sales_data partitions and archives; only available when the table is partitioned on PostgreSQL
+    @GetMapping("/partitions")
+    public ResponseEntity<List<SalesPartition>> getPartitions() {
+        return ResponseEntity.ok(salesPartitionService.listPartitions());
+    }
+    
+    @PostMapping("/partitions/{month}/archive")
+    public ResponseEntity<SalesPartition> archivePartition(@PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(salesPartitionService.archive(month));
+    }
+    
+    @PostMapping("/partitions/{month}/restore")
+    public ResponseEntity<SalesPartition> restorePartition(@PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(salesPartitionService.restore(month));
+    }
+    
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
 }
@@ -1,20 +1,31 @@
 package com.voicepoc.controller;
 
+import com.voicepoc.dto.ReportJob;
+import com.voicepoc.dto.VoiceCommandBatchRequest;
+import com.voicepoc.dto.VoiceCommandBatchResponse;
 import com.voicepoc.dto.VoiceCommandRequest;
 import com.voicepoc.dto.VoiceCommandResponse;
 import com.voicepoc.model.SalesData;
+import com.voicepoc.service.QueryResultCache;
+import com.voicepoc.service.ReportDownloadService;
+import com.voicepoc.service.ReportJobService;
+import com.voicepoc.service.ReportQueueFullException;
 import com.voicepoc.service.VoiceCommandService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/voice")
@@ -24,35 +35,76 @@ public class VoiceCommandController {
     @Autowired
     private VoiceCommandService voiceCommandService;
     
+    @Autowired
+    private QueryResultCache queryResultCache;
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private ReportDownloadService reportDownloadService;
+    
     @PostMapping("/process")
     public ResponseEntity<VoiceCommandResponse> processVoiceCommand(@Valid @RequestBody VoiceCommandRequest request) {
         VoiceCommandResponse response = voiceCommandService.processVoiceCommand(request);
         return ResponseEntity.ok(response);
     }
     
+    // Several commands in one round trip; related queries share database scans
+    @PostMapping("/process/batch")
+    public ResponseEntity<VoiceCommandBatchResponse> processBatch(@Valid @RequestBody VoiceCommandBatchRequest request) {
+        return ResponseEntity.ok(voiceCommandService.processBatch(request));
+    }
+    
     @GetMapping("/test")
     public ResponseEntity<String> testEndpoint() {
         return ResponseEntity.ok("Voice Command API is working!");
     }
     
-    @GetMapping("/download/{filename}")
-    public ResponseEntity<Resource> downloadReport(@PathVariable String filename) {
-        try {
-            File file = new File("reports/" + filename);
-            
-            if (!file.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            Resource resource = new FileSystemResource(file);
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .body(resource);
-                    
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", queryResultCache.size());
+        stats.put("hits", queryResultCache.getHits());
+        stats.put("misses", queryResultCache.getMisses());
+        stats.put("evictions", queryResultCache.getEvictions());
+        stats.put("invalidations", queryResultCache.getInvalidations());
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJob> getJob(@PathVariable String id) {
+        ReportJob job = reportJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(job);
+    }
+    
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> jobEvents(@PathVariable String id) {
+        ReportJob job = reportJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reportJobService.subscribe(job));
+    }
+    
+    @ExceptionHandler(ReportQueueFullException.class)
+    public ResponseEntity<VoiceCommandResponse> handleQueueFull(ReportQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new VoiceCommandResponse(false, e.getMessage()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<VoiceCommandResponse> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(new VoiceCommandResponse(false, e.getMessage()));
+    }
+    
+    @GetMapping("/download/{filename}")
+    public void downloadReport(@PathVariable String filename, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        reportDownloadService.serve(filename, request, response);
     }
 }
@@ -0,0 +1,73 @@
+package com.voicepoc.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voicepoc.dto.VoiceCommandResponse;
+import com.voicepoc.dto.VoiceTranscriptEvent;
+import com.voicepoc.dto.VoiceTranscriptMessage;
+import com.voicepoc.service.VoicePrefetchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+
+// Streams speech-recognition transcripts while the user is talking: partial transcripts may start the
+// likely query early, and the final one is answered with the same response as POST /api/voice/process
+@Component
+public class VoiceTranscriptHandler extends TextWebSocketHandler {
+    
+    private static final String SESSION_ATTRIBUTE = "voicePrefetch";
+    
+    @Autowired
+    private VoicePrefetchService voicePrefetchService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.getAttributes().put(SESSION_ATTRIBUTE, new VoicePrefetchService.Session());
+    }
+    
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        VoiceTranscriptMessage transcript;
+        try {
+            transcript = objectMapper.readValue(message.getPayload(), VoiceTranscriptMessage.class);
+        } catch (JsonProcessingException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("Malformed transcript message"));
+            return;
+        }
+        if (transcript.getCommand() == null || transcript.getCommand().isBlank()) {
+            return;
+        }
+        
+        VoicePrefetchService.Session state = prefetchSession(session);
+        if (transcript.isFinalTranscript()) {
+            send(session, new VoiceTranscriptEvent(VoiceTranscriptEvent.RESULT,
+                voicePrefetchService.onFinal(state, transcript)));
+        } else {
+            VoiceCommandResponse interim = voicePrefetchService.onPartial(state, transcript);
+            if (interim != null) {
+                send(session, new VoiceTranscriptEvent(VoiceTranscriptEvent.INTERIM, interim));
+            }
+        }
+    }
+    
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        voicePrefetchService.close(prefetchSession(session));
+    }
+    
+    private VoicePrefetchService.Session prefetchSession(WebSocketSession session) {
+        return (VoicePrefetchService.Session) session.getAttributes().get(SESSION_ATTRIBUTE);
+    }
+    
+    private void send(WebSocketSession session, VoiceTranscriptEvent event) throws IOException {
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.voicepoc.dto;
+
+import java.time.Instant;
+
+public class ReportJob {
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+    
+    private final String id;
+    private final Instant submittedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile VoiceCommandResponse result;
+    private volatile String error;
+    
+    public ReportJob(String id) {
+        this.id = id;
+        this.submittedAt = Instant.now();
+    }
+    
+    public void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+    
+    public void markCompleted(VoiceCommandResponse result) {
+        this.result = result;
+        completedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+    
+    public void markFailed(String error) {
+        this.error = error;
+        completedAt = Instant.now();
+        status = Status.FAILED;
+    }
+    
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+    
+    // Getters
+    public String getId() {
+        return id;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+    
+    public VoiceCommandResponse getResult() {
+        return result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
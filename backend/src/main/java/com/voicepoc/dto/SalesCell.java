@@ -0,0 +1,49 @@
+package com.voicepoc.dto;
+
+import java.math.BigDecimal;
+
+// One group of an aggregate further split by category and region, so several
+// differently filtered summaries can be rolled up from a single query
+public class SalesCell {
+    
+    private final String groupKey;
+    private final String category;
+    private final String region;
+    private final long recordCount;
+    private final long totalQuantity;
+    private final BigDecimal totalRevenue;
+    
+    public SalesCell(String groupKey, String category, String region, long recordCount, long totalQuantity,
+                     BigDecimal totalRevenue) {
+        this.groupKey = groupKey;
+        this.category = category;
+        this.region = region;
+        this.recordCount = recordCount;
+        this.totalQuantity = totalQuantity;
+        this.totalRevenue = totalRevenue;
+    }
+    
+    public String getGroupKey() {
+        return groupKey;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+}
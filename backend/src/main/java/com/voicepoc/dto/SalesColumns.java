@@ -0,0 +1,124 @@
+package com.voicepoc.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Column-per-field form of a row list. Repeating text and dates are sent once in "dictionaries"
+// and referenced by index, so each row costs a handful of small numbers on the wire
+public class SalesColumns {
+    
+    private final int rowCount;
+    private final long[] id;
+    private final int[] salesDate;
+    private final int[] productName;
+    private final int[] category;
+    private final int[] region;
+    private final int[] customerName;
+    private final int[] quantity;
+    private final BigDecimal[] unitPrice;
+    private final BigDecimal[] totalAmount;
+    private final Map<String, List<String>> dictionaries = new LinkedHashMap<>();
+    
+    private SalesColumns(int rowCount) {
+        this.rowCount = rowCount;
+        this.id = new long[rowCount];
+        this.salesDate = new int[rowCount];
+        this.productName = new int[rowCount];
+        this.category = new int[rowCount];
+        this.region = new int[rowCount];
+        this.customerName = new int[rowCount];
+        this.quantity = new int[rowCount];
+        this.unitPrice = new BigDecimal[rowCount];
+        this.totalAmount = new BigDecimal[rowCount];
+    }
+    
+    public static SalesColumns from(List<SalesRow> rows) {
+        SalesColumns columns = new SalesColumns(rows.size());
+        Encoder dates = new Encoder();
+        Encoder products = new Encoder();
+        Encoder categories = new Encoder();
+        Encoder regions = new Encoder();
+        Encoder customers = new Encoder();
+        
+        for (int i = 0; i < rows.size(); i++) {
+            SalesRow row = rows.get(i);
+            columns.id[i] = row.getId() != null ? row.getId() : 0L;
+            columns.salesDate[i] = dates.code(row.getSalesDate() != null ? row.getSalesDate().toString() : null);
+            columns.productName[i] = products.code(row.getProductName());
+            columns.category[i] = categories.code(row.getCategory());
+            columns.region[i] = regions.code(row.getRegion());
+            columns.customerName[i] = customers.code(row.getCustomerName());
+            columns.quantity[i] = row.getQuantity() != null ? row.getQuantity() : 0;
+            columns.unitPrice[i] = row.getUnitPrice();
+            columns.totalAmount[i] = row.getTotalAmount();
+        }
+        
+        columns.dictionaries.put("salesDate", dates.values);
+        columns.dictionaries.put("productName", products.values);
+        columns.dictionaries.put("category", categories.values);
+        columns.dictionaries.put("region", regions.values);
+        columns.dictionaries.put("customerName", customers.values);
+        return columns;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    public long[] getId() {
+        return id;
+    }
+    
+    public int[] getSalesDate() {
+        return salesDate;
+    }
+    
+    public int[] getProductName() {
+        return productName;
+    }
+    
+    public int[] getCategory() {
+        return category;
+    }
+    
+    public int[] getRegion() {
+        return region;
+    }
+    
+    public int[] getCustomerName() {
+        return customerName;
+    }
+    
+    public int[] getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal[] getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public BigDecimal[] getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public Map<String, List<String>> getDictionaries() {
+        return dictionaries;
+    }
+    
+    // Codes are assigned in first-seen order
+    private static class Encoder {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        
+        int code(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.voicepoc.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// One group of a period comparison; every array has one entry per compared period, in the order spoken.
+// Changes and growth compare the first period with each later one, so they have one entry fewer
+public class SalesComparison {
+    
+    private final String groupKey;
+    private final long[] recordCounts;
+    private final long[] totalQuantities;
+    private final BigDecimal[] totalRevenues;
+    
+    public SalesComparison(String groupKey, long[] recordCounts, long[] totalQuantities, BigDecimal[] totalRevenues) {
+        this.groupKey = groupKey;
+        this.recordCounts = recordCounts;
+        this.totalQuantities = totalQuantities;
+        this.totalRevenues = totalRevenues;
+    }
+    
+    public String getGroupKey() {
+        return groupKey;
+    }
+    
+    public long[] getRecordCounts() {
+        return recordCounts;
+    }
+    
+    public long[] getTotalQuantities() {
+        return totalQuantities;
+    }
+    
+    public BigDecimal[] getTotalRevenues() {
+        return totalRevenues;
+    }
+    
+    public BigDecimal[] getRevenueChanges() {
+        BigDecimal[] changes = new BigDecimal[totalRevenues.length - 1];
+        for (int i = 1; i < totalRevenues.length; i++) {
+            changes[i - 1] = totalRevenues[0].subtract(totalRevenues[i]);
+        }
+        return changes;
+    }
+    
+    // Percent, one decimal; null where the later period sold nothing
+    public BigDecimal[] getRevenueGrowthPercents() {
+        BigDecimal[] growth = new BigDecimal[totalRevenues.length - 1];
+        for (int i = 1; i < totalRevenues.length; i++) {
+            BigDecimal baseline = totalRevenues[i];
+            growth[i - 1] = baseline.signum() == 0 ? null : totalRevenues[0].subtract(baseline)
+                .multiply(BigDecimal.valueOf(100)).divide(baseline, 1, RoundingMode.HALF_UP);
+        }
+        return growth;
+    }
+}
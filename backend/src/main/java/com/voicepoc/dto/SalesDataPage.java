@@ -0,0 +1,56 @@
+package com.voicepoc.dto;
+
+import com.voicepoc.model.SalesData;
+
+import java.util.List;
+
+public class SalesDataPage {
+    
+    private List<SalesData> items;
+    private int size;
+    private boolean hasMore;
+    // Opaque keyset cursor for the next page; null on the last page
+    private String nextCursor;
+    
+    public SalesDataPage() {}
+    
+    public SalesDataPage(List<SalesData> items, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.size = items.size();
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<SalesData> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<SalesData> items) {
+        this.items = items;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.voicepoc.dto;
+
+import java.math.BigDecimal;
+
+// One answer to a distinct-count or top-N question. Exact answers have both bounds equal to the value; sketch
+// answers hold the true value between the bounds with the given confidence
+public class SalesEstimate {
+    
+    // Product or customer name for top-N answers, null for distinct counts
+    private final String groupKey;
+    // Distinct count, or revenue for top-N answers
+    private final BigDecimal value;
+    private final BigDecimal lowerBound;
+    private final BigDecimal upperBound;
+    private final double confidence;
+    
+    public SalesEstimate(String groupKey, BigDecimal value, BigDecimal lowerBound, BigDecimal upperBound,
+                         double confidence) {
+        this.groupKey = groupKey;
+        this.value = value;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.confidence = confidence;
+    }
+    
+    public static SalesEstimate exact(String groupKey, BigDecimal value) {
+        return new SalesEstimate(groupKey, value, value, value, 1.0);
+    }
+    
+    public String getGroupKey() {
+        return groupKey;
+    }
+    
+    public BigDecimal getValue() {
+        return value;
+    }
+    
+    public BigDecimal getLowerBound() {
+        return lowerBound;
+    }
+    
+    public BigDecimal getUpperBound() {
+        return upperBound;
+    }
+    
+    public double getConfidence() {
+        return confidence;
+    }
+}
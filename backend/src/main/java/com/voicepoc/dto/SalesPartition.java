@@ -0,0 +1,43 @@
+package com.voicepoc.dto;
+
+// One month of sales_data: an attached partition, the default partition (month is null) or an archive file
+public class SalesPartition {
+    
+    public static final String ATTACHED = "attached";
+    public static final String ARCHIVED = "archived";
+    
+    private final String name;
+    private final String month;
+    private final String status;
+    // Planner estimate for attached partitions, exact for archives written by this application
+    private final long rowCount;
+    private final long bytes;
+    
+    public SalesPartition(String name, String month, String status, long rowCount, long bytes) {
+        this.name = name;
+        this.month = month;
+        this.status = status;
+        this.rowCount = rowCount;
+        this.bytes = bytes;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getMonth() {
+        return month;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,67 @@
+package com.voicepoc.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Read-only projection of one sales_data row, built straight from the query result with no entity or persistence context
+public class SalesRow {
+    
+    private final Long id;
+    private final String productName;
+    private final String category;
+    private final LocalDate salesDate;
+    private final Integer quantity;
+    private final BigDecimal unitPrice;
+    private final BigDecimal totalAmount;
+    private final String customerName;
+    private final String region;
+    
+    public SalesRow(Long id, String productName, String category, LocalDate salesDate, Integer quantity,
+                    BigDecimal unitPrice, BigDecimal totalAmount, String customerName, String region) {
+        this.id = id;
+        this.productName = productName;
+        this.category = category;
+        this.salesDate = salesDate;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalAmount = totalAmount;
+        this.customerName = customerName;
+        this.region = region;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+}
@@ -0,0 +1,53 @@
+package com.voicepoc.dto;
+
+import java.math.BigDecimal;
+
+public class SalesSummary {
+    
+    private String groupKey;
+    private long recordCount;
+    private long totalQuantity;
+    private BigDecimal totalRevenue;
+    
+    public SalesSummary() {}
+    
+    public SalesSummary(String groupKey, long recordCount, long totalQuantity, BigDecimal totalRevenue) {
+        this.groupKey = groupKey;
+        this.recordCount = recordCount;
+        this.totalQuantity = totalQuantity;
+        this.totalRevenue = totalRevenue;
+    }
+    
+    // Getters and Setters
+    public String getGroupKey() {
+        return groupKey;
+    }
+    
+    public void setGroupKey(String groupKey) {
+        this.groupKey = groupKey;
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+    
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+    
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+    
+    public void setTotalRevenue(BigDecimal totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+}
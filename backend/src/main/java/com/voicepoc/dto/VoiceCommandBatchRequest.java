@@ -0,0 +1,27 @@
+package com.voicepoc.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class VoiceCommandBatchRequest {
+    
+    // Answered synchronously; the async flag of individual commands is ignored
+    @NotEmpty(message = "At least one voice command is required")
+    private List<@Valid VoiceCommandRequest> commands;
+    
+    public VoiceCommandBatchRequest() {}
+    
+    public VoiceCommandBatchRequest(List<VoiceCommandRequest> commands) {
+        this.commands = commands;
+    }
+    
+    public List<VoiceCommandRequest> getCommands() {
+        return commands;
+    }
+    
+    public void setCommands(List<VoiceCommandRequest> commands) {
+        this.commands = commands;
+    }
+}
@@ -0,0 +1,44 @@
+package com.voicepoc.dto;
+
+import java.util.List;
+
+public class VoiceCommandBatchResponse {
+    
+    // One response per command, in request order
+    private List<VoiceCommandResponse> results;
+    // Distinct queries left after de-duplication and cache hits, and the database scans that answered them
+    private int queries;
+    private int scans;
+    
+    public VoiceCommandBatchResponse() {}
+    
+    public VoiceCommandBatchResponse(List<VoiceCommandResponse> results, int queries, int scans) {
+        this.results = results;
+        this.queries = queries;
+        this.scans = scans;
+    }
+    
+    public List<VoiceCommandResponse> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<VoiceCommandResponse> results) {
+        this.results = results;
+    }
+    
+    public int getQueries() {
+        return queries;
+    }
+    
+    public void setQueries(int queries) {
+        this.queries = queries;
+    }
+    
+    public int getScans() {
+        return scans;
+    }
+    
+    public void setScans(int scans) {
+        this.scans = scans;
+    }
+}
@@ -4,12 +4,30 @@ import jakarta.validation.constraints.NotBlank;
 
 public class VoiceCommandRequest {
     
+    public static final String FORMAT_ROWS = "rows";
+    public static final String FORMAT_COLUMNS = "columns";
+    
     @NotBlank(message = "Voice command text is required")
     private String command;
     
     private String category;
     private String region;
     
+    // Queue the report as a background job instead of waiting for it
+    private boolean async;
+    
+    // "rows" (default) returns salesData objects; "columns" returns salesColumns with dictionary-encoded text
+    private String format;
+    
+    // Caps detail rows in the response below voice.response.max-rows
+    private Integer limit;
+    
+    // Workbook layout for detail reports: "detail" (default), "summary" or "full"
+    private String reportMode;
+    
+    // Report file format: "xlsx" (default), "csv", "csv.gz", "columnar" or "pdf"; overrides one named in the command
+    private String exportFormat;
+    
     public VoiceCommandRequest() {}
     
     public VoiceCommandRequest(String command) {
@@ -39,4 +57,44 @@ public class VoiceCommandRequest {
     public void setRegion(String region) {
         this.region = region;
     }
+    
+    public boolean isAsync() {
+        return async;
+    }
+    
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    public String getReportMode() {
+        return reportMode;
+    }
+    
+    public void setReportMode(String reportMode) {
+        this.reportMode = reportMode;
+    }
+    
+    public String getExportFormat() {
+        return exportFormat;
+    }
+    
+    public void setExportFormat(String exportFormat) {
+        this.exportFormat = exportFormat;
+    }
 }
@@ -1,6 +1,8 @@
 package com.voicepoc.dto;
 
-import com.voicepoc.model.SalesData;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -13,7 +15,26 @@ public class VoiceCommandResponse {
     private LocalDate endDate;
     private String category;
     private String region;
-    private List<SalesData> salesData;
+    private String productName;
+    private String customerName;
+    private List<SalesRow> salesData;
+    private SalesColumns salesColumns;
+    // Detail rows included above, and whether more rows matched than were returned
+    private Integer returnedRows;
+    private boolean truncated;
+    // Every matching record and their revenue, however few rows are returned above; totalAmount is null for
+    // distinct-count questions and sketch answers
+    private Long recordCount;
+    private BigDecimal totalAmount;
+    private SalesDimension groupBy;
+    private List<SalesSummary> summary;
+    // Comparison commands only; startDate and endDate then span every compared period
+    private List<DateRange> comparedPeriods;
+    private List<SalesComparison> comparison;
+    // Distinct-count and top-N questions only; approximate is true when the answer came from sketches
+    private Boolean approximate;
+    private List<SalesEstimate> estimates;
+    private String jobId;
     private String reportUrl;
     
     public VoiceCommandResponse() {}
@@ -80,14 +101,126 @@ public class VoiceCommandResponse {
         this.region = region;
     }
     
-    public List<SalesData> getSalesData() {
+    public String getProductName() {
+        return productName;
+    }
+    
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+    
+    public List<SalesRow> getSalesData() {
         return salesData;
     }
     
-    public void setSalesData(List<SalesData> salesData) {
+    public void setSalesData(List<SalesRow> salesData) {
         this.salesData = salesData;
     }
     
+    public SalesColumns getSalesColumns() {
+        return salesColumns;
+    }
+    
+    public void setSalesColumns(SalesColumns salesColumns) {
+        this.salesColumns = salesColumns;
+    }
+    
+    public Integer getReturnedRows() {
+        return returnedRows;
+    }
+    
+    public void setReturnedRows(Integer returnedRows) {
+        this.returnedRows = returnedRows;
+    }
+    
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+    
+    public Long getRecordCount() {
+        return recordCount;
+    }
+    
+    public void setRecordCount(Long recordCount) {
+        this.recordCount = recordCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+        public SalesDimension getGroupBy() {
+        return groupBy;
+    }
+    
+    public void setGroupBy(SalesDimension groupBy) {
+        this.groupBy = groupBy;
+    }
+    
+    public List<SalesSummary> getSummary() {
+        return summary;
+    }
+    
+    public void setSummary(List<SalesSummary> summary) {
+        this.summary = summary;
+    }
+    
+    public List<DateRange> getComparedPeriods() {
+        return comparedPeriods;
+    }
+    
+    public void setComparedPeriods(List<DateRange> comparedPeriods) {
+        this.comparedPeriods = comparedPeriods;
+    }
+    
+    public List<SalesComparison> getComparison() {
+        return comparison;
+    }
+    
+    public void setComparison(List<SalesComparison> comparison) {
+        this.comparison = comparison;
+    }
+    
+    public Boolean getApproximate() {
+        return approximate;
+    }
+    
+    public void setApproximate(Boolean approximate) {
+        this.approximate = approximate;
+    }
+    
+    public List<SalesEstimate> getEstimates() {
+        return estimates;
+    }
+    
+    public void setEstimates(List<SalesEstimate> estimates) {
+        this.estimates = estimates;
+    }
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+    
     public String getReportUrl() {
         return reportUrl;
     }
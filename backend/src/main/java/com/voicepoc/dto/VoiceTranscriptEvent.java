@@ -0,0 +1,35 @@
+package com.voicepoc.dto;
+
+// Sent back over the transcript WebSocket: "interim" when a partial transcript resolves to different filters,
+// "result" with the full response once the final transcript has been processed
+public class VoiceTranscriptEvent {
+    
+    public static final String INTERIM = "interim";
+    public static final String RESULT = "result";
+    
+    private String type;
+    private VoiceCommandResponse response;
+    
+    public VoiceTranscriptEvent() {}
+    
+    public VoiceTranscriptEvent(String type, VoiceCommandResponse response) {
+        this.type = type;
+        this.response = response;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public VoiceCommandResponse getResponse() {
+        return response;
+    }
+    
+    public void setResponse(VoiceCommandResponse response) {
+        this.response = response;
+    }
+}
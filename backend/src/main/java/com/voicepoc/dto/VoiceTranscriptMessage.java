@@ -0,0 +1,17 @@
+package com.voicepoc.dto;
+
+// One speech-recognition result sent over the transcript WebSocket. The command is the whole transcript so far,
+// and the other request options apply when the final transcript is processed
+public class VoiceTranscriptMessage extends VoiceCommandRequest {
+    
+    // False while the user is still speaking
+    private boolean finalTranscript;
+    
+    public boolean isFinalTranscript() {
+        return finalTranscript;
+    }
+    
+    public void setFinalTranscript(boolean finalTranscript) {
+        this.finalTranscript = finalTranscript;
+    }
+}
@@ -0,0 +1,71 @@
+package com.voicepoc.event;
+
+import com.voicepoc.parser.DateRange;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Sales-date ranges a derived store still has to rebuild; tracks pending and in-progress ranges separately
+public class DirtyDateRanges {
+    
+    private final List<DateRange> pending = new ArrayList<>();
+    private List<DateRange> inProgress = List.of();
+    
+    public synchronized void add(LocalDate fromDate, LocalDate toDate) {
+        pending.add(new DateRange(fromDate, toDate));
+    }
+    
+    public synchronized void addAll(List<DateRange> ranges) {
+        pending.addAll(ranges);
+    }
+    
+    // Null bounds are open-ended; readers must wait for both pending and in-progress rebuilds of their days
+    public synchronized boolean overlaps(LocalDate startDate, LocalDate endDate) {
+        return overlaps(pending, startDate, endDate) || overlaps(inProgress, startDate, endDate);
+    }
+    
+    // Takes every pending range, merging overlapping and adjacent ones so each day is rebuilt once
+    public synchronized List<DateRange> drain() {
+        List<DateRange> ranges = new ArrayList<>(pending);
+        pending.clear();
+        ranges.sort(Comparator.comparing(DateRange::getStartDate));
+        
+        List<DateRange> merged = new ArrayList<>();
+        for (DateRange range : ranges) {
+            DateRange last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !range.getStartDate().isAfter(last.getEndDate().plusDays(1))) {
+                if (range.getEndDate().isAfter(last.getEndDate())) {
+                    merged.set(merged.size() - 1, new DateRange(last.getStartDate(), range.getEndDate()));
+                }
+            } else {
+                merged.add(range);
+            }
+        }
+        inProgress = merged;
+        return merged;
+    }
+    
+    public synchronized void finish() {
+        inProgress = List.of();
+    }
+    
+    public synchronized void clear() {
+        pending.clear();
+    }
+    
+    public synchronized int size() {
+        return pending.size();
+    }
+    
+    private static boolean overlaps(List<DateRange> ranges, LocalDate startDate, LocalDate endDate) {
+        for (DateRange range : ranges) {
+            if ((endDate == null || !range.getStartDate().isAfter(endDate))
+                    && (startDate == null || !range.getEndDate().isBefore(startDate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package com.voicepoc.event;
+
+import java.time.LocalDate;
+
+// Published whenever sales_data rows are inserted, updated or deleted; the dates bound the affected sales dates
+public class SalesDataChangedEvent {
+    
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final long rowCount;
+    
+    public SalesDataChangedEvent(LocalDate fromDate, LocalDate toDate, long rowCount) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.rowCount = rowCount;
+    }
+    
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+    
+    public LocalDate getToDate() {
+        return toDate;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public boolean overlaps(LocalDate startDate, LocalDate endDate) {
+        return !fromDate.isAfter(endDate) && !toDate.isBefore(startDate);
+    }
+}
@@ -0,0 +1,55 @@
+package com.voicepoc.event;
+
+import com.voicepoc.model.SalesData;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Instantiated by Hibernate through Spring's bean container, so it can publish application events
+@Component
+public class SalesDataEntityListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostLoad
+    public void salesDataLoaded(SalesData salesData) {
+        salesData.markStored();
+    }
+    
+    @PostPersist
+    public void salesDataInserted(SalesData salesData) {
+        publish(salesData.getSalesDate());
+        salesData.markStored();
+    }
+    
+    // A row moved to another date changes both days, so each is published on its own rather than as one
+    // range that could span years
+    @PostUpdate
+    public void salesDataUpdated(SalesData salesData) {
+        LocalDate previous = salesData.storedSalesDate();
+        publish(salesData.getSalesDate());
+        if (previous != null && !previous.equals(salesData.getSalesDate())) {
+            publish(previous);
+        }
+        salesData.markStored();
+    }
+    
+    // The deleted row is the stored one, even if its date was changed in memory first
+    @PostRemove
+    public void salesDataRemoved(SalesData salesData) {
+        publish(salesData.storedSalesDate() != null ? salesData.storedSalesDate() : salesData.getSalesDate());
+    }
+    
+    private void publish(LocalDate salesDate) {
+        if (salesDate != null) {
+            eventPublisher.publishEvent(new SalesDataChangedEvent(salesDate, salesDate, 1));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.voicepoc.model;
+
+import java.util.Locale;
+
+// File format of a generated report; each one is produced by a SalesReportWriter
+public enum ReportFormat {
+    
+    XLSX("xlsx"),
+    // Streaming CSV with the same columns the bulk loader imports
+    CSV("csv"),
+    CSV_GZIP("csv.gz"),
+    // Dictionary-encoded binary columns in row groups, for downstream analytics jobs
+    COLUMNAR("vcol"),
+    // Printable summary tables
+    PDF("pdf");
+    
+    private final String extension;
+    
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    // CSV and columnar files always carry the detail rows and PDF always carries the summary,
+    // so only workbooks honour the requested mode
+    public ReportMode layoutFor(ReportMode requested) {
+        return switch (this) {
+            case XLSX -> requested;
+            case CSV, CSV_GZIP, COLUMNAR -> ReportMode.DETAIL;
+            case PDF -> ReportMode.SUMMARY;
+        };
+    }
+    
+    public static ReportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return XLSX;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        ReportFormat alias = switch (normalized) {
+            case "excel" -> XLSX;
+            case "gzip", "gz", "csv.gz" -> CSV_GZIP;
+            case "parquet" -> COLUMNAR;
+            default -> null;
+        };
+        if (alias != null) {
+            return alias;
+        }
+        try {
+            return valueOf(normalized.replace('-', '_').replace('.', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format '" + value + "', expected xlsx, csv, csv.gz, columnar or pdf");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.voicepoc.model;
+
+import java.util.Locale;
+
+// Workbook layout for detail (non-grouped) commands
+public enum ReportMode {
+    
+    // One row per sale, as before
+    DETAIL,
+    // Only the aggregated sheets: totals, category, region, month by category, top products and customers
+    SUMMARY,
+    // Aggregated sheets first, followed by the detail rows
+    FULL;
+    
+    public boolean includesSummary() {
+        return this != DETAIL;
+    }
+    
+    public boolean includesDetail() {
+        return this != SUMMARY;
+    }
+    
+    public static ReportMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return DETAIL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown report mode '" + value + "', expected detail, summary or full");
+        }
+    }
+}
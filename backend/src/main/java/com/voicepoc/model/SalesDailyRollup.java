@@ -0,0 +1,95 @@
+package com.voicepoc.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// One row per day, category and region; maintained by SalesRollupService, never written through JPA
+@Entity
+@Table(name = "sales_daily_rollup")
+@IdClass(SalesDailyRollup.Key.class)
+public class SalesDailyRollup {
+    
+    // Named like SalesData's attributes so the same filter predicates apply to both tables
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate salesDate;
+    
+    @Id
+    @Column(name = "category", length = 100)
+    private String category;
+    
+    @Id
+    @Column(name = "region", length = 100)
+    private String region;
+    
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+    
+    @Column(name = "total_quantity", nullable = false)
+    private long totalQuantity;
+    
+    @Column(name = "total_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalRevenue;
+    
+    public SalesDailyRollup() {}
+    
+    // Getters
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+    
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private String category;
+        private String region;
+        
+        public Key() {}
+        
+        public Key(LocalDate salesDate, String category, String region) {
+            this.salesDate = salesDate;
+            this.category = category;
+            this.region = region;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(salesDate, other.salesDate) && Objects.equals(category, other.category)
+                && Objects.equals(region, other.region);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(salesDate, category, region);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.voicepoc.model;
 
+import com.voicepoc.event.SalesDataEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "sales_data")
+@Table(name = "sales_data", indexes = @Index(name = "idx_sales_data_date_id", columnList = "sales_date, id"))
+@EntityListeners(SalesDataEntityListener.class)
 public class SalesData {
     
     @Id
@@ -36,6 +39,15 @@ public class SalesData {
     @Column(name = "region")
     private String region;
     
+    // Set on every insert and update, including bulk loads; stored reports are versioned by the latest change
+    // and the row count of their date range
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // sales_date as last read from or written to the database, so a change of date can also invalidate the old day
+    @Transient
+    private LocalDate storedSalesDate;
+    
     // Constructors
     public SalesData() {}
     
@@ -124,4 +136,23 @@ public class SalesData {
     public void setRegion(String region) {
         this.region = region;
     }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Not bean accessors, so the stored date never appears in JSON
+    public LocalDate storedSalesDate() {
+        return storedSalesDate;
+    }
+    
+    public void markStored() {
+        this.storedSalesDate = salesDate;
+    }
 }
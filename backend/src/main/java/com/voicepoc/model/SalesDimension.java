@@ -0,0 +1,20 @@
+package com.voicepoc.model;
+
+public enum SalesDimension {
+    
+    CATEGORY("Category"),
+    REGION("Region"),
+    MONTH("Month"),
+    PRODUCT("Product"),
+    CUSTOMER("Customer");
+    
+    private final String label;
+    
+    SalesDimension(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
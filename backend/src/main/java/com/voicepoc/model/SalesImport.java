@@ -0,0 +1,43 @@
+package com.voicepoc.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row per imported CSV file, keyed by the SHA-256 of its content; written by SalesDataBulkLoader in the
+// same transaction as the rows it loads, never through JPA
+@Entity
+@Table(name = "sales_imports")
+public class SalesImport {
+    
+    @Id
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+    
+    @Column(name = "imported_at", nullable = false)
+    private LocalDateTime importedAt;
+    
+    public SalesImport() {}
+    
+    // Getters
+    public String getChecksum() {
+        return checksum;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public LocalDateTime getImportedAt() {
+        return importedAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.voicepoc.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Burkhard-Keller tree over Levenshtein distance: a lookup within distance d only descends into children
+// whose edge distance lies in [dist - d, dist + d], so most of the dictionary is never compared
+class BkTree<T> {
+    
+    private Node<T> root;
+    
+    void add(String key, T value) {
+        if (root == null) {
+            root = new Node<>(key, value);
+            return;
+        }
+        Node<T> node = root;
+        while (true) {
+            int distance = distance(key, node.key);
+            if (distance == 0) {
+                if (!node.values.contains(value)) {
+                    node.values.add(value);
+                }
+                return;
+            }
+            Node<T> child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node<>(key, value));
+                return;
+            }
+            node = child;
+        }
+    }
+    
+    // Values of every key at the smallest distance found, if that distance is within maxDistance
+    List<T> closest(String key, int maxDistance) {
+        List<T> best = new ArrayList<>();
+        if (root == null) {
+            return best;
+        }
+        int bestDistance = maxDistance + 1;
+        List<Node<T>> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.remove(pending.size() - 1);
+            int distance = distance(key, node.key);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best.clear();
+            }
+            if (distance == bestDistance && distance <= maxDistance) {
+                for (T value : node.values) {
+                    if (!best.contains(value)) {
+                        best.add(value);
+                    }
+                }
+            }
+            // The radius shrinks as closer keys are found
+            int radius = Math.min(maxDistance, bestDistance);
+            for (Map.Entry<Integer, Node<T>> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= radius) {
+                    pending.add(child.getValue());
+                }
+            }
+        }
+        return best;
+    }
+    
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+    
+    private static class Node<T> {
+        final String key;
+        final List<T> values = new ArrayList<>(1);
+        final Map<Integer, Node<T>> children = new HashMap<>();
+        
+        Node(String key, T value) {
+            this.key = key;
+            this.values.add(value);
+        }
+    }
+}
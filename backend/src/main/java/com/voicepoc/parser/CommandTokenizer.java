@@ -0,0 +1,32 @@
+package com.voicepoc.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CommandTokenizer {
+    
+    private CommandTokenizer() {}
+    
+    // Splits a lower-cased command into letter/digit runs in a single pass; everything else is a separator
+    public static List<Token> tokenize(String command) {
+        List<Token> tokens = new ArrayList<>();
+        int length = command.length();
+        int start = -1;
+        
+        for (int i = 0; i < length; i++) {
+            char c = command.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(new Token(command.substring(start, i), start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(new Token(command.substring(start), start, length));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,543 @@
+package com.voicepoc.parser;
+
+import org.springframework.stereotype.Component;
+
+import java.text.ParsePosition;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+public class DateExpressionParser {
+    
+    private static final String ORDINAL = "['st']['nd']['rd']['th']";
+    
+    // Compiled once and tried in order; earlier numeric patterns win ambiguous dates such as 03/04/2024.
+    // The first NUMERIC_FORMATTERS are all digits and separators, so any match there is meant as a date
+    private static final int NUMERIC_FORMATTERS = 7;
+    private static final DateTimeFormatter[] FORMATTERS = {
+        formatter("MM/dd/yyyy"), formatter("dd/MM/yyyy"), formatter("yyyy-MM-dd"),
+        formatter("MM-dd-yyyy"), formatter("dd-MM-yyyy"), formatter("M/d/yyyy"), formatter("d/M/yyyy"),
+        formatter("MMMM d" + ORDINAL + "[[','] yyyy]"),
+        formatter("MMM d" + ORDINAL + "[[','] yyyy]"),
+        formatter("d" + ORDINAL + " ['of ']MMMM[[','] yyyy]"),
+        formatter("d" + ORDINAL + " ['of ']MMM[[','] yyyy]")
+    };
+    
+    private static final String[] QUARTER_ORDINALS = {"first", "second", "third", "fourth"};
+    
+    // A four-digit number is only read as a bare year inside this range, so "over 5000" stays a number
+    private static final int MIN_BARE_YEAR = 1900;
+    private static final int MAX_BARE_YEAR = 2100;
+    
+    // Resolves the date range spoken in a command, or null when it mentions none. Throws InvalidDateException
+    // when it names a date that cannot exist, rather than answering for some other period
+    public DateRange parse(VoiceIntent intent, LocalDate today) {
+        List<Token> tokens = intent.getTokens();
+        
+        DateRange range = parseExplicitDates(intent, tokens, today);
+        if (range == null) {
+            range = parseQuarter(tokens, today);
+        }
+        if (range == null) {
+            range = parseMonths(intent, tokens, today);
+        }
+        if (range == null) {
+            range = parseYears(tokens);
+        }
+        if (range == null) {
+            range = parseRelative(tokens, today);
+        }
+        return range;
+    }
+    
+    // Periods of a comparison in the order spoken, or null unless every segment names one. Later periods
+    // may be relative to the first: "this month vs last month" compares month-to-date with the same days of
+    // last month, "march vs last year" means march a year earlier, and "vs previous period" is the window just before
+    public List<DateRange> parseComparison(VoiceIntent intent, LocalDate today) {
+        List<VoiceIntent> segments = intent.getComparedSegments();
+        if (segments.size() < 2) {
+            return null;
+        }
+        DateRange reference = parse(segments.get(0), today);
+        if (reference == null) {
+            return null;
+        }
+        List<DateRange> periods = new ArrayList<>();
+        periods.add(reference);
+        for (VoiceIntent segment : segments.subList(1, segments.size())) {
+            DateRange period = parseRelativeTo(segment, reference, today);
+            if (period == null) {
+                period = parse(segment, today);
+            }
+            if (period == null) {
+                return null;
+            }
+            periods.add(period);
+        }
+        return periods;
+    }
+    
+    private DateRange parseRelativeTo(VoiceIntent segment, DateRange reference, LocalDate today) {
+        List<Token> tokens = segment.getTokens();
+        // "previous 30 days" ends where the reference starts rather than today
+        for (int i = 0; i + 2 < tokens.size(); i++) {
+            String text = tokens.get(i).getText();
+            Token count = tokens.get(i + 1);
+            if ((text.equals("previous") || text.equals("prior") || text.equals("preceding"))
+                    && count.isNumeric() && count.getText().length() <= 4) {
+                LocalDate endDate = reference.getStartDate().minusDays(1);
+                DateRange window = relativeRange("past", Integer.parseInt(count.getText()), tokens.get(i + 2).getText(), endDate);
+                if (window != null) {
+                    return window;
+                }
+            }
+        }
+        for (Token token : tokens) {
+            // Month names, explicit dates, years and quarters are absolute
+            if (token.isNumeric() || (token.getText().length() == 2 && token.getText().charAt(0) == 'q')) {
+                return null;
+            }
+        }
+        for (KeywordMatch match : segment.getTimeExpressions()) {
+            if (match.getType() == KeywordType.MONTH) {
+                return null;
+            }
+        }
+        
+        for (int i = 0; i < tokens.size(); i++) {
+            String text = tokens.get(i).getText();
+            String next = i + 1 < tokens.size() ? tokens.get(i + 1).getText() : "";
+            if (next.equals("period") && (text.equals("previous") || text.equals("prior") || text.equals("last"))) {
+                LocalDate endDate = reference.getStartDate().minusDays(1);
+                return new DateRange(endDate.minusDays(reference.getDays() - 1), endDate);
+            }
+            // "a year ago", "one month ago"
+            if ((text.equals("a") || text.equals("one")) && i + 2 < tokens.size() && tokens.get(i + 2).getText().equals("ago")) {
+                return shiftWithin(reference, next, today);
+            }
+            if (text.equals("last") || text.equals("previous") || text.equals("prior")) {
+                return shiftWithin(reference, next, today);
+            }
+        }
+        return null;
+    }
+    
+    // The reference moved back one unit, as long as it lies inside the current unit; otherwise "last <unit>" keeps
+    // its usual meaning. Month-end references stay month-end so february lines up with a full february
+    private DateRange shiftWithin(DateRange reference, String unit, LocalDate today) {
+        LocalDate currentStart;
+        ChronoUnit step;
+        int amount = 1;
+        switch (unit) {
+            case "day" -> {
+                currentStart = today;
+                step = ChronoUnit.DAYS;
+            }
+            case "week" -> {
+                currentStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                step = ChronoUnit.WEEKS;
+            }
+            case "month" -> {
+                currentStart = today.withDayOfMonth(1);
+                step = ChronoUnit.MONTHS;
+            }
+            case "quarter" -> {
+                currentStart = today.with(IsoFields.DAY_OF_QUARTER, 1);
+                step = ChronoUnit.MONTHS;
+                amount = 3;
+            }
+            case "year" -> {
+                currentStart = today.withDayOfYear(1);
+                step = ChronoUnit.YEARS;
+            }
+            default -> {
+                return null;
+            }
+        }
+        LocalDate currentEnd = currentStart.plus(amount, step).minusDays(1);
+        if (reference.getStartDate().isBefore(currentStart) || reference.getEndDate().isAfter(currentEnd)) {
+            return null;
+        }
+        LocalDate startDate = reference.getStartDate().minus(amount, step);
+        LocalDate endDate = reference.getEndDate().minus(amount, step);
+        boolean monthEnd = reference.getEndDate().equals(reference.getEndDate().with(TemporalAdjusters.lastDayOfMonth()));
+        if (monthEnd && step != ChronoUnit.DAYS && step != ChronoUnit.WEEKS) {
+            endDate = endDate.with(TemporalAdjusters.lastDayOfMonth());
+        }
+        return new DateRange(startDate, endDate);
+    }
+    
+    // "01/15/2024 to 03/31/2024", "january 1st 2024 to march 31st", "since 2024-02-01"
+    private DateRange parseExplicitDates(VoiceIntent intent, List<Token> tokens, LocalDate today) {
+        String text = intent.getCommand();
+        ParsePosition position = new ParsePosition(0);
+        DatePoint first = null;
+        DatePoint second = null;
+        int consumedUntil = 0;
+        
+        for (int i = 0; i < tokens.size() && second == null; i++) {
+            Token token = tokens.get(i);
+            if (token.getStart() < consumedUntil || !canStartDate(intent, token, i)) {
+                continue;
+            }
+            DatePoint point = parseDateAt(text, token.getStart(), position);
+            if (point == null) {
+                continue;
+            }
+            if (!point.valid) {
+                throw new InvalidDateException("'" + point.spoken + "' is not a valid date");
+            }
+            point.tokenIndex = i;
+            consumedUntil = point.end;
+            if (first == null) {
+                first = point;
+            } else {
+                second = point;
+            }
+        }
+        
+        if (first == null) {
+            return null;
+        }
+        
+        // A missing year is borrowed from the other end of the range, then from today
+        int fallbackYear = second != null && second.hasYear ? second.year : today.getYear();
+        LocalDate startDate = first.toDate(fallbackYear);
+        if (second == null) {
+            if (first.tokenIndex > 0 && isOpenEndedConnector(tokens.get(first.tokenIndex - 1).getText())) {
+                return new DateRange(startDate, today);
+            }
+            return new DateRange(startDate, startDate);
+        }
+        
+        LocalDate endDate = second.toDate(first.hasYear ? first.year : today.getYear());
+        if (startDate.isAfter(endDate) && !first.hasYear) {
+            // "december 1st to february 28th 2024" spans the year boundary
+            startDate = first.toDate(startDate.getYear() - 1);
+        } else if (startDate.isAfter(endDate) && !second.hasYear) {
+            // "june 1st 2024 to february 3rd" runs forward into the next year
+            endDate = second.toDate(endDate.getYear() + 1);
+        }
+        return startDate.isAfter(endDate) ? new DateRange(endDate, startDate) : new DateRange(startDate, endDate);
+    }
+    
+    // "q2 2024", "third quarter"
+    private DateRange parseQuarter(List<Token> tokens, LocalDate today) {
+        for (int i = 0; i < tokens.size(); i++) {
+            String text = tokens.get(i).getText();
+            int quarter = 0;
+            int yearIndex = i + 1;
+            
+            if (text.length() == 2 && text.charAt(0) == 'q' && text.charAt(1) >= '1' && text.charAt(1) <= '4') {
+                quarter = text.charAt(1) - '0';
+            } else if (i + 1 < tokens.size() && tokens.get(i + 1).getText().equals("quarter")) {
+                for (int q = 0; q < QUARTER_ORDINALS.length; q++) {
+                    if (QUARTER_ORDINALS[q].equals(text)) {
+                        quarter = q + 1;
+                    }
+                }
+                yearIndex = i + 2;
+            }
+            if (quarter == 0) {
+                continue;
+            }
+            
+            int year = yearAt(tokens, yearIndex);
+            boolean explicitYear = year > 0;
+            if (!explicitYear) {
+                year = today.getYear();
+            }
+            LocalDate startDate = LocalDate.of(year, (quarter - 1) * 3 + 1, 1);
+            if (!explicitYear && startDate.isAfter(today)) {
+                startDate = startDate.minusYears(1);
+            }
+            return new DateRange(startDate, startDate.plusMonths(3).minusDays(1));
+        }
+        return null;
+    }
+    
+    // "march 2024", "january to march", "december 2023 to february 2024"
+    private DateRange parseMonths(VoiceIntent intent, List<Token> tokens, LocalDate today) {
+        KeywordMatch first = null;
+        KeywordMatch second = null;
+        for (KeywordMatch match : intent.getTimeExpressions()) {
+            if (match.getType() != KeywordType.MONTH) {
+                continue;
+            }
+            if (first == null) {
+                first = match;
+            } else {
+                second = match;
+                break;
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+        
+        int firstMonth = Integer.parseInt(first.getValue());
+        int firstYear = yearAt(tokens, first.getLastToken() + 1);
+        
+        if (second == null) {
+            int year = firstYear > 0 ? firstYear : today.getYear();
+            LocalDate startDate = LocalDate.of(year, firstMonth, 1);
+            if (firstYear <= 0 && startDate.isAfter(today)) {
+                // A bare month name means its most recent occurrence
+                startDate = startDate.minusYears(1);
+            }
+            return new DateRange(startDate, startDate.with(TemporalAdjusters.lastDayOfMonth()));
+        }
+        
+        int secondMonth = Integer.parseInt(second.getValue());
+        int secondYear = yearAt(tokens, second.getLastToken() + 1);
+        boolean explicitSecondYear = secondYear > 0;
+        if (!explicitSecondYear) {
+            secondYear = firstYear > 0 ? firstYear : today.getYear();
+        }
+        
+        LocalDate startDate = LocalDate.of(firstYear > 0 ? firstYear : secondYear, firstMonth, 1);
+        LocalDate endDate = LocalDate.of(secondYear, secondMonth, 1).with(TemporalAdjusters.lastDayOfMonth());
+        if (startDate.isAfter(endDate) && firstYear <= 0) {
+            startDate = startDate.minusYears(1);
+        } else if (startDate.isAfter(endDate) && !explicitSecondYear) {
+            // "june 2020 to february" ends in february 2021
+            endDate = endDate.plusYears(1).with(TemporalAdjusters.lastDayOfMonth());
+        }
+        return startDate.isAfter(endDate) ? new DateRange(endDate.withDayOfMonth(1), startDate.with(TemporalAdjusters.lastDayOfMonth()))
+            : new DateRange(startDate, endDate);
+    }
+    
+    // "sales for 2023", "2022 to 2024"; whole calendar years
+    private DateRange parseYears(List<Token> tokens) {
+        for (int i = 0; i < tokens.size(); i++) {
+            int year = bareYearAt(tokens, i);
+            if (year == 0) {
+                continue;
+            }
+            String previous = i > 0 ? tokens.get(i - 1).getText() : "";
+            String next = i + 1 < tokens.size() ? tokens.get(i + 1).getText() : "";
+            // "last 2000 days", "top 1000 customers" and "over 5000" are counts, not years
+            if (previous.equals("last") || previous.equals("past") || previous.equals("previous")
+                    || previous.equals("top") || previous.equals("over") || previous.equals("under")
+                    || relativeRange("past", 1, next, LocalDate.EPOCH) != null) {
+                continue;
+            }
+            int endYear = year;
+            if ((next.equals("to") || next.equals("through") || next.equals("until")) && bareYearAt(tokens, i + 2) > 0) {
+                endYear = bareYearAt(tokens, i + 2);
+            }
+            LocalDate startDate = LocalDate.of(Math.min(year, endYear), 1, 1);
+            return new DateRange(startDate, LocalDate.of(Math.max(year, endYear), 12, 31));
+        }
+        return null;
+    }
+    
+    private int bareYearAt(List<Token> tokens, int index) {
+        int year = yearAt(tokens, index);
+        return year >= MIN_BARE_YEAR && year <= MAX_BARE_YEAR ? year : 0;
+    }
+    
+    // "today", "year to date", "last quarter", "this month", "past 30 days"
+    private DateRange parseRelative(List<Token> tokens, LocalDate today) {
+        for (int i = 0; i < tokens.size(); i++) {
+            String text = tokens.get(i).getText();
+            
+            switch (text) {
+                case "today":
+                    return new DateRange(today, today);
+                case "yesterday":
+                    return new DateRange(today.minusDays(1), today.minusDays(1));
+                case "ytd":
+                    return new DateRange(today.withDayOfYear(1), today);
+                case "year":
+                    if (i + 2 < tokens.size() && tokens.get(i + 1).getText().equals("to")
+                            && tokens.get(i + 2).getText().equals("date")) {
+                        return new DateRange(today.withDayOfYear(1), today);
+                    }
+                    continue;
+                case "last", "past", "previous", "this", "current":
+                    break;
+                default:
+                    continue;
+            }
+            
+            int unitIndex = i + 1;
+            int count = 0;
+            if (unitIndex < tokens.size() && tokens.get(unitIndex).isNumeric() && tokens.get(unitIndex).getText().length() <= 4) {
+                count = Integer.parseInt(tokens.get(unitIndex).getText());
+                unitIndex++;
+            }
+            if (unitIndex >= tokens.size()) {
+                continue;
+            }
+            
+            DateRange range = relativeRange(text, count, tokens.get(unitIndex).getText(), today);
+            if (range != null) {
+                return range;
+            }
+        }
+        return null;
+    }
+    
+    private DateRange relativeRange(String anchor, int count, String unit, LocalDate today) {
+        boolean current = anchor.equals("this") || anchor.equals("current");
+        // "last 30 days" and "past month" are rolling windows ending today
+        boolean rolling = count > 0 || anchor.equals("past");
+        int amount = Math.max(count, 1);
+        
+        switch (unit) {
+            case "day", "days":
+                if (current) {
+                    return new DateRange(today, today);
+                }
+                return rolling ? new DateRange(today.minusDays(amount - 1L), today)
+                    : new DateRange(today.minusDays(1), today.minusDays(1));
+            case "week", "weeks":
+                LocalDate monday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                if (current) {
+                    return new DateRange(monday, today);
+                }
+                return rolling ? new DateRange(today.minusWeeks(amount).plusDays(1), today)
+                    : new DateRange(monday.minusWeeks(1), monday.minusDays(1));
+            case "month", "months":
+                LocalDate monthStart = today.withDayOfMonth(1);
+                if (current) {
+                    return new DateRange(monthStart, today);
+                }
+                return rolling ? new DateRange(today.minusMonths(amount).plusDays(1), today)
+                    : new DateRange(monthStart.minusMonths(1), monthStart.minusDays(1));
+            case "quarter", "quarters":
+                LocalDate quarterStart = today.with(IsoFields.DAY_OF_QUARTER, 1);
+                if (current) {
+                    return new DateRange(quarterStart, today);
+                }
+                return rolling ? new DateRange(today.minusMonths(3L * amount).plusDays(1), today)
+                    : new DateRange(quarterStart.minusMonths(3), quarterStart.minusDays(1));
+            case "year", "years":
+                LocalDate yearStart = today.withDayOfYear(1);
+                if (current) {
+                    return new DateRange(yearStart, today);
+                }
+                return rolling ? new DateRange(today.minusYears(amount).plusDays(1), today)
+                    : new DateRange(yearStart.minusYears(1), yearStart.minusDays(1));
+            default:
+                return null;
+        }
+    }
+    
+    // Tries every compiled pattern at the given offset without throwing or copying the command. A date that
+    // reads as one but cannot exist, like "2024-02-30" or "february 30th", comes back as an invalid point
+    private DatePoint parseDateAt(String text, int index, ParsePosition position) {
+        DatePoint invalid = null;
+        for (int f = 0; f < FORMATTERS.length; f++) {
+            DateTimeFormatter formatter = FORMATTERS[f];
+            position.setIndex(index);
+            position.setErrorIndex(-1);
+            TemporalAccessor parsed = formatter.parseUnresolved(text, position);
+            if (parsed == null || position.getErrorIndex() >= 0) {
+                continue;
+            }
+            int end = position.getIndex();
+            if (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                // Stopped inside a word, e.g. "mar" of "march"
+                continue;
+            }
+            
+            long month = parsed.getLong(ChronoField.MONTH_OF_YEAR);
+            long day = parsed.getLong(ChronoField.DAY_OF_MONTH);
+            boolean hasYear = parsed.isSupported(ChronoField.YEAR_OF_ERA);
+            long year = hasYear ? parsed.getLong(ChronoField.YEAR_OF_ERA) : 0;
+            
+            boolean inRange = month >= 1 && month <= 12 && day >= 1 && day <= 31
+                && (!hasYear || (year >= 1 && year <= 9999));
+            // Reject impossible days up front; LocalDate.of would throw for them
+            if (!inRange || day > Month.of((int) month).maxLength()
+                    || (hasYear && day > Month.of((int) month).length(Year.isLeap(year)))) {
+                // "march 2024" reads as day 2024 of march and is no date at all; "april 31st" is a wrong one
+                if (invalid == null && (f < NUMERIC_FORMATTERS || inRange)) {
+                    invalid = new DatePoint();
+                    invalid.spoken = text.substring(index, end);
+                }
+                continue;
+            }
+            
+            DatePoint point = new DatePoint();
+            point.valid = true;
+            point.month = (int) month;
+            point.day = (int) day;
+            point.year = (int) year;
+            point.hasYear = hasYear;
+            point.spoken = text.substring(index, end);
+            point.end = end;
+            return point;
+        }
+        return invalid;
+    }
+    
+    private boolean canStartDate(VoiceIntent intent, Token token, int tokenIndex) {
+        if (Character.isDigit(token.getText().charAt(0))) {
+            return true;
+        }
+        for (KeywordMatch match : intent.getTimeExpressions()) {
+            if (match.getType() == KeywordType.MONTH && match.getFirstToken() == tokenIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isOpenEndedConnector(String word) {
+        return word.equals("from") || word.equals("since") || word.equals("after");
+    }
+    
+    // Four-digit year at the given token, or 0
+    private int yearAt(List<Token> tokens, int index) {
+        if (index >= tokens.size()) {
+            return 0;
+        }
+        Token token = tokens.get(index);
+        if (token.getText().length() != 4 || !token.isNumeric()) {
+            return 0;
+        }
+        return Integer.parseInt(token.getText());
+    }
+    
+    private static DateTimeFormatter formatter(String pattern) {
+        return new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendPattern(pattern)
+            .toFormatter(Locale.ENGLISH);
+    }
+    
+    private static class DatePoint {
+        boolean valid;
+        int month;
+        int day;
+        int year;
+        boolean hasYear;
+        String spoken;
+        int end;
+        int tokenIndex;
+        
+        // "29th of february" only exists in leap years, so a borrowed year can still make it invalid
+        LocalDate toDate(int fallbackYear) {
+            int resolvedYear = hasYear ? year : fallbackYear;
+            if (day > Month.of(month).length(Year.isLeap(resolvedYear))) {
+                throw new InvalidDateException("'" + spoken + "' is not a valid date in " + resolvedYear);
+            }
+            return LocalDate.of(resolvedYear, month, day);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.voicepoc.parser;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class DateRange {
+    
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    
+    public DateRange(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public long getDays() {
+        return endDate.toEpochDay() - startDate.toEpochDay() + 1;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DateRange)) {
+            return false;
+        }
+        DateRange other = (DateRange) o;
+        return Objects.equals(startDate, other.startDate) && Objects.equals(endDate, other.endDate);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(startDate, endDate);
+    }
+    
+    @Override
+    public String toString() {
+        return startDate + ".." + endDate;
+    }
+}
@@ -0,0 +1,413 @@
+package com.voicepoc.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Immutable lookup from spoken words to the exact category, region, product and customer values stored in
+// sales_data. Whole names and unambiguous leading words come from a token trie; words left over are tried
+// against a BK-tree of edit distances and a Soundex index, so recognition slips still land on a stored key.
+// A single misheard word is only matched next to a cue such as "region", since ordinary words like "least"
+// or "worth" sound close enough to stored values to become filters nobody asked for. Words beside a cue that
+// match nothing come back as an UNMATCHED match, so the command is not run unfiltered without saying so
+public final class DimensionIndex {
+    
+    public static final DimensionIndex EMPTY = builder().build();
+    
+    // Never the start of a prefix, fuzzy or phonetic match
+    private static final Set<String> FILLER = Set.of(
+        "a", "an", "the", "for", "of", "in", "on", "at", "and", "or", "with", "by", "me", "my", "our", "us",
+        "i", "we", "is", "are", "was", "were", "be", "it", "all", "any", "per", "as", "please", "give", "want",
+        "need", "total", "totals", "top", "best", "most", "sold", "sale", "selling", "compare", "everything",
+        "each", "every", "which", "whole", "entire");
+    
+    // Words naming a dimension; a lone approximate word must stand beside one of them
+    private static final Set<String> CUES = Set.of(
+        "region", "regions", "category", "categories", "customer", "customers", "client", "clients",
+        "product", "products", "item", "items");
+    
+    // Singular cues that are followed or preceded by one name, and the dimension an unmatched name is reported as
+    private static final Map<String, String> NAME_CUES = Map.of(
+        "region", "region", "category", "category", "customer", "customer", "client", "customer",
+        "product", "product", "item", "product");
+    
+    // Shorter single words are never approximate matches; too many stored names are one edit or one sound away
+    private static final int MIN_FUZZY_LENGTH = 4;
+    
+    private final Node root;
+    private final int maxPhraseTokens;
+    private final BkTree<Keyword> spellings;
+    private final Map<String, List<Keyword>> phonetic;
+    // The parser's own vocabulary; these words mean something else and are never misheard names
+    private final Set<String> reserved;
+    private final int size;
+    
+    private DimensionIndex(Node root, int maxPhraseTokens, BkTree<Keyword> spellings,
+                           Map<String, List<Keyword>> phonetic, Set<String> reserved, int size) {
+        this.root = root;
+        this.maxPhraseTokens = maxPhraseTokens;
+        this.spellings = spellings;
+        this.phonetic = phonetic;
+        this.reserved = reserved;
+        this.size = size;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    // Adds dimension matches for tokens the vocabulary left unmatched; the result is in token order
+    public List<KeywordMatch> resolve(List<Token> tokens, List<KeywordMatch> vocabularyMatches) {
+        if (size == 0) {
+            return vocabularyMatches;
+        }
+        boolean[] taken = new boolean[tokens.size()];
+        for (KeywordMatch match : vocabularyMatches) {
+            for (int i = match.getFirstToken(); i <= match.getLastToken(); i++) {
+                taken[i] = true;
+            }
+        }
+        
+        List<KeywordMatch> matches = new ArrayList<>(vocabularyMatches);
+        boolean added = false;
+        int i = 0;
+        while (i < tokens.size()) {
+            KeywordMatch match = taken[i] ? null : exactOrPrefix(tokens, taken, i);
+            if (match == null && !taken[i]) {
+                match = approximate(tokens, taken, i);
+            }
+            if (match != null) {
+                matches.add(match);
+                for (int j = match.getFirstToken(); j <= match.getLastToken(); j++) {
+                    taken[j] = true;
+                }
+                added = true;
+                i = match.getLastToken() + 1;
+            } else {
+                i++;
+            }
+        }
+        added |= addUnmatched(tokens, taken, matches);
+        if (added) {
+            matches.sort(Comparator.comparingInt(KeywordMatch::getFirstToken));
+        }
+        return matches;
+    }
+    
+    // Longest whole name starting at i, else the one name that the spoken leading words can only belong to
+    private KeywordMatch exactOrPrefix(List<Token> tokens, boolean[] taken, int i) {
+        Node node = root;
+        Keyword exact = null;
+        int exactEnd = -1;
+        Keyword prefix = null;
+        int prefixEnd = -1;
+        int prefixChars = 0;
+        int chars = 0;
+        for (int j = i; j < tokens.size() && !taken[j]; j++) {
+            node = node.children.get(tokens.get(j).getText());
+            if (node == null) {
+                break;
+            }
+            chars += tokens.get(j).getText().length();
+            if (node.keyword != null) {
+                exact = node.keyword;
+                exactEnd = j;
+            }
+            if (node.only != null) {
+                prefix = node.only;
+                prefixEnd = j;
+                prefixChars = chars;
+            }
+        }
+        if (exact != null) {
+            return new KeywordMatch(exact, i, exactEnd);
+        }
+        Token first = tokens.get(i);
+        if (prefix != null && prefixChars >= 4 && !FILLER.contains(first.getText()) && !first.isNumeric()) {
+            return new KeywordMatch(prefix, i, prefixEnd);
+        }
+        return null;
+    }
+    
+    // Longest span first: split words joined back together, then the closest spelling, then the same sound
+    private KeywordMatch approximate(List<Token> tokens, boolean[] taken, int i) {
+        Token first = tokens.get(i);
+        if (!candidate(first)) {
+            return null;
+        }
+        int limit = i;
+        while (limit < tokens.size() && limit - i < maxPhraseTokens + 1 && !taken[limit]
+                && candidate(tokens.get(limit))) {
+            limit++;
+        }
+        for (int end = limit - 1; end >= i; end--) {
+            List<Token> span = tokens.subList(i, end + 1);
+            String phrase = span.stream().map(Token::getText).collect(Collectors.joining(" "));
+            String joined = phrase.replace(" ", "");
+            
+            Keyword keyword = null;
+            if (end > i) {
+                keyword = unique(spellings.closest(joined, 0));
+            }
+            if (end == i && (phrase.length() < MIN_FUZZY_LENGTH || !cued(tokens, i))) {
+                continue;
+            }
+            if (keyword == null) {
+                keyword = unique(spellings.closest(phrase, tolerance(phrase.length())));
+            }
+            if (keyword == null && joined.length() >= 5) {
+                keyword = unique(phonetic.get(phoneticKey(span.stream().map(Token::getText).toList())));
+            }
+            if (keyword != null) {
+                return new KeywordMatch(keyword, i, end);
+            }
+        }
+        return null;
+    }
+    
+    // Whether a word can be part of a spoken name at all
+    private boolean candidate(Token token) {
+        String text = token.getText();
+        return !token.isNumeric() && !FILLER.contains(text) && !CUES.contains(text) && !reserved.contains(text);
+    }
+    
+    // A singular cue such as "region" with no matched name on either side names a value nobody stored:
+    // reports the words right after it, else the words right before it
+    private boolean addUnmatched(List<Token> tokens, boolean[] taken, List<KeywordMatch> matches) {
+        KeywordType[] types = new KeywordType[tokens.size()];
+        for (KeywordMatch match : matches) {
+            for (int j = match.getFirstToken(); j <= match.getLastToken(); j++) {
+                types[j] = match.getType();
+            }
+        }
+        boolean added = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            String dimension = NAME_CUES.get(tokens.get(i).getText());
+            // "by region" is a breakdown, and a cue inside a stored name is part of that name
+            boolean cue = types[i] == null || types[i] == KeywordType.BUSINESS || types[i] == KeywordType.SUBJECT;
+            if (dimension == null || !cue || isName(types, i - 1) || isName(types, i + 1)) {
+                continue;
+            }
+            int end = i + 1;
+            while (end < tokens.size() && end - i <= maxPhraseTokens && !taken[end] && candidate(tokens.get(end))) {
+                end++;
+            }
+            int start = i;
+            if (end == i + 1) {
+                while (start > 0 && i - start < maxPhraseTokens && !taken[start - 1] && candidate(tokens.get(start - 1))) {
+                    start--;
+                }
+            }
+            if (end > i + 1 || start < i) {
+                Keyword unmatched = new Keyword(KeywordType.UNMATCHED, dimension);
+                matches.add(end > i + 1
+                    ? new KeywordMatch(unmatched, i + 1, end - 1) : new KeywordMatch(unmatched, start, i - 1));
+                added = true;
+            }
+        }
+        return added;
+    }
+    
+    private static boolean isName(KeywordType[] types, int i) {
+        if (i < 0 || i >= types.length || types[i] == null) {
+            return false;
+        }
+        return switch (types[i]) {
+            case CATEGORY, REGION, PRODUCT, CUSTOMER -> true;
+            default -> false;
+        };
+    }
+    
+    // Edits allowed for a spoken phrase of this many characters; short words must be exact to avoid false hits
+    private static int tolerance(int length) {
+        if (length < 6) {
+            return 0;
+        }
+        return length < 10 ? 1 : 2;
+    }
+    
+    // Whether the nearest non-filler word on either side of token i names a dimension
+    private static boolean cued(List<Token> tokens, int i) {
+        for (int j = i - 1; j >= 0; j--) {
+            String text = tokens.get(j).getText();
+            if (!FILLER.contains(text)) {
+                if (CUES.contains(text)) {
+                    return true;
+                }
+                break;
+            }
+        }
+        for (int j = i + 1; j < tokens.size(); j++) {
+            String text = tokens.get(j).getText();
+            if (!FILLER.contains(text)) {
+                return CUES.contains(text);
+            }
+        }
+        return false;
+    }
+    
+    private static Keyword unique(List<Keyword> candidates) {
+        return candidates != null && candidates.size() == 1 ? candidates.get(0) : null;
+    }
+    
+    private static String phoneticKey(List<String> words) {
+        return words.stream().map(DimensionIndex::soundex).collect(Collectors.joining(" "));
+    }
+    
+    // American Soundex: first letter plus up to three consonant-class digits
+    static String soundex(String word) {
+        StringBuilder code = new StringBuilder(4);
+        char last = 0;
+        for (int i = 0; i < word.length() && code.length() < 4; i++) {
+            char c = word.charAt(i);
+            char digit = switch (c) {
+                case 'b', 'f', 'p', 'v' -> '1';
+                case 'c', 'g', 'j', 'k', 'q', 's', 'x', 'z' -> '2';
+                case 'd', 't' -> '3';
+                case 'l' -> '4';
+                case 'm', 'n' -> '5';
+                case 'r' -> '6';
+                case 'h', 'w' -> last == 0 ? '0' : last;
+                default -> '0';
+            };
+            if (code.length() == 0) {
+                code.append(Character.isLetter(c) ? Character.toUpperCase(c) : c);
+            } else if (digit != '0' && digit != last) {
+                code.append(digit);
+            }
+            // h and w do not separate equal codes; vowels do
+            if (c != 'h' && c != 'w') {
+                last = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public static class Builder {
+        private final Map<KeywordType, Set<String>> values = new EnumMap<>(KeywordType.class);
+        private final Set<String> reserved = new HashSet<>();
+        
+        public Builder add(KeywordType type, String value) {
+            if (value != null && !value.isBlank()) {
+                values.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(value);
+            }
+            return this;
+        }
+        
+        public Builder addAll(KeywordType type, Collection<String> typeValues) {
+            typeValues.forEach(value -> add(type, value));
+            return this;
+        }
+        
+        // Words that are never fuzzy or phonetic matches nor unmatched names, normally IntentParser's vocabulary
+        public Builder reserve(Collection<String> words) {
+            reserved.addAll(words);
+            return this;
+        }
+        
+        // Earlier types win when two values normalise to the same words, so a category beats a product
+        public DimensionIndex build() {
+            Node root = new Node();
+            BkTree<Keyword> spellings = new BkTree<>();
+            Map<String, List<Keyword>> phonetic = new HashMap<>();
+            Map<List<String>, Keyword> variants = new HashMap<>();
+            int maxTokens = 0;
+            int size = 0;
+            
+            for (Map.Entry<KeywordType, Set<String>> entry : values.entrySet()) {
+                for (String value : entry.getValue()) {
+                    List<String> words = CommandTokenizer.tokenize(value.toLowerCase(Locale.ROOT)).stream()
+                        .map(Token::getText).toList();
+                    if (words.isEmpty()) {
+                        continue;
+                    }
+                    Keyword keyword = new Keyword(entry.getKey(), value);
+                    insert(root, words, keyword);
+                    spellings.add(String.join(" ", words), keyword);
+                    List<Keyword> sounds = phonetic.computeIfAbsent(phoneticKey(words), k -> new ArrayList<>(1));
+                    if (!sounds.contains(keyword)) {
+                        sounds.add(keyword);
+                    }
+                    variants.putIfAbsent(pluralVariant(words), keyword);
+                    maxTokens = Math.max(maxTokens, words.size());
+                    size++;
+                }
+            }
+            
+            // Singular and plural forms ("electronic", "book") only fill phrases no stored value claims
+            variants.forEach((words, keyword) -> {
+                Node node = find(root, words);
+                if (words.get(words.size() - 1).length() > 3 && (node == null || node.keyword == null)) {
+                    insert(root, words, keyword);
+                }
+            });
+            return new DimensionIndex(root, maxTokens, spellings, phonetic, Set.copyOf(reserved), size);
+        }
+        
+        private static List<String> pluralVariant(List<String> words) {
+            List<String> variant = new ArrayList<>(words);
+            String last = variant.get(variant.size() - 1);
+            variant.set(variant.size() - 1, last.endsWith("s") ? last.substring(0, last.length() - 1) : last + "s");
+            return variant;
+        }
+        
+        private static void insert(Node root, List<String> words, Keyword keyword) {
+            Node node = root;
+            for (String word : words) {
+                node = node.children.computeIfAbsent(word, w -> new Node());
+                node.claim(keyword);
+            }
+            if (node.keyword == null) {
+                node.keyword = keyword;
+            }
+        }
+        
+        private static Node find(Node root, List<String> words) {
+            Node node = root;
+            for (String word : words) {
+                node = node.children.get(word);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+    }
+    
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        // Value whose name ends exactly here
+        Keyword keyword;
+        // The single value reachable through this node, or null once a second one shares the path
+        Keyword only;
+        boolean shared;
+        
+        void claim(Keyword value) {
+            if (shared || value.equals(only)) {
+                return;
+            }
+            if (only == null) {
+                only = value;
+            } else {
+                only = null;
+                shared = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.voicepoc.parser;
+
+public enum IntentAction {
+    
+    // "generate", "create", "report"
+    GENERATE,
+    // "show", "display", "get", "fetch", "sales", "data"
+    SHOW,
+    // "analytics", "dashboard", "summary", "overview"
+    SUMMARIZE,
+    // "compare", "comparison"; the periods are separated by COMPARE connectors
+    COMPARE,
+    // "top", "best selling"; ranks the SUBJECT that follows
+    RANK,
+    // "how many", "unique", "distinct"; counts distinct values of the SUBJECT that follows
+    COUNT
+}
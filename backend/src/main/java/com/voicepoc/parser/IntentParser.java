@@ -0,0 +1,145 @@
+package com.voicepoc.parser;
+
+import com.voicepoc.model.ReportFormat;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class IntentParser {
+    
+    private static final String[] MONTHS = {
+        "january", "february", "march", "april", "may", "june",
+        "july", "august", "september", "october", "november", "december"
+    };
+    
+    private static final String[] MONTH_ABBREVIATIONS = {
+        "jan", "feb", "mar", "apr", null, "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+    
+    // Built once; every command is then matched in a single pass over its tokens
+    private final KeywordTrie trie = buildVocabulary();
+    
+    // Category, region, product and customer names; replaced wholesale whenever the stored values change
+    private volatile DimensionIndex dimensions = DimensionIndex.EMPTY;
+    
+    public VoiceIntent parse(String command) {
+        VoiceIntent intent = parseText(command.toLowerCase().trim());
+        
+        // Each compared period is parsed on its own so the date parser sees one period at a time
+        List<KeywordMatch> connectors = intent.getComparisonConnectors();
+        if (!connectors.isEmpty()) {
+            String normalized = intent.getCommand();
+            List<Token> tokens = intent.getTokens();
+            List<VoiceIntent> segments = new ArrayList<>();
+            int from = 0;
+            for (KeywordMatch connector : connectors) {
+                segments.add(parseText(normalized.substring(from, tokens.get(connector.getFirstToken()).getStart()).trim()));
+                from = tokens.get(connector.getLastToken()).getEnd();
+            }
+            segments.add(parseText(normalized.substring(from).trim()));
+            intent.setComparedSegments(segments);
+        }
+        return intent;
+    }
+    
+    private VoiceIntent parseText(String normalized) {
+        List<Token> tokens = CommandTokenizer.tokenize(normalized);
+        VoiceIntent intent = new VoiceIntent(normalized, tokens);
+        for (KeywordMatch match : dimensions.resolve(tokens, trie.match(tokens))) {
+            intent.accept(match);
+        }
+        return intent;
+    }
+    
+    public void setDimensions(DimensionIndex dimensions) {
+        this.dimensions = dimensions;
+    }
+    
+    public DimensionIndex getDimensions() {
+        return dimensions;
+    }
+    
+    // Words the dimension index must never treat as misheard names
+    public Set<String> getVocabularyWords() {
+        return trie.words();
+    }
+    
+    private static KeywordTrie buildVocabulary() {
+        KeywordTrie trie = new KeywordTrie();
+        
+        // Report-related keywords (must have at least one)
+        trie.add(KeywordType.ACTION, IntentAction.GENERATE.name(), "generate", "create", "report", "reports", "export", "download");
+        trie.add(KeywordType.ACTION, IntentAction.SHOW.name(), "show", "display", "get", "fetch", "sales", "data");
+        trie.add(KeywordType.ACTION, IntentAction.SUMMARIZE.name(),
+            "analytics", "dashboard", "summary", "summaries", "overview");
+        trie.add(KeywordType.ACTION, IntentAction.COMPARE.name(), "compare", "comparison", "comparing");
+        trie.add(KeywordType.ACTION, IntentAction.RANK.name(), "top", "best selling", "best sellers", "biggest");
+        // "how many" outranks the rejected bare "how"
+        trie.add(KeywordType.ACTION, IntentAction.COUNT.name(), "how many", "unique", "distinct", "number of",
+            "count of");
+        
+        // Period separators for comparisons; "compared to" outranks a bare "to" range connector
+        trie.add(KeywordType.COMPARE, "VERSUS", "vs", "versus", "against", "compared to", "compared with",
+            "relative to");
+        trie.add(KeywordType.COMPARE, "AND", "and", "with");
+        
+        // Baseline filters, keyed by the values stored in sales_data. They hold even when the dimension dictionary
+        // is disabled or failed to load; its names, prefixes and near misses only fill the words these leave over
+        trie.add(KeywordType.CATEGORY, "Electronics", "electronics");
+        trie.add(KeywordType.CATEGORY, "Clothing", "clothing");
+        trie.add(KeywordType.CATEGORY, "Books", "books");
+        trie.add(KeywordType.CATEGORY, "Furniture", "furniture");
+        trie.add(KeywordType.CATEGORY, "Sports", "sports");
+        trie.add(KeywordType.REGION, "North", "north");
+        trie.add(KeywordType.REGION, "South", "south");
+        trie.add(KeywordType.REGION, "East", "east");
+        trie.add(KeywordType.REGION, "West", "west");
+        trie.add(KeywordType.REGION, "Central", "central");
+        trie.add(KeywordType.BUSINESS, "business", "category", "region", "revenue");
+        trie.add(KeywordType.SUBJECT, "PRODUCT", "product", "products", "items");
+        trie.add(KeywordType.SUBJECT, "CUSTOMER", "customer", "customers", "buyers", "clients");
+        
+        trie.add(KeywordType.APPROXIMATE, "APPROXIMATE", "roughly", "approximately", "approximate", "approx",
+            "estimate", "estimated", "ballpark");
+        
+        // Breakdowns; longest match means "by region" wins over the bare "region"
+        trie.add(KeywordType.GROUP_BY, "CATEGORY", "by category", "by categories", "per category");
+        trie.add(KeywordType.GROUP_BY, "REGION", "by region", "by regions", "per region");
+        trie.add(KeywordType.GROUP_BY, "MONTH", "by month", "by months", "per month", "monthly");
+        trie.add(KeywordType.GROUP_BY, "PRODUCT", "by product", "by products", "per product");
+        trie.add(KeywordType.GROUP_BY, "CUSTOMER", "by customer", "by customers", "per customer");
+        
+        // Export formats; "compressed csv" and "csv gzip" outrank the bare "csv"
+        trie.add(KeywordType.FORMAT, ReportFormat.XLSX.name(), "excel", "xlsx", "spreadsheet", "workbook");
+        trie.add(KeywordType.FORMAT, ReportFormat.CSV.name(), "csv");
+        trie.add(KeywordType.FORMAT, ReportFormat.CSV_GZIP.name(),
+            "gzip", "gzipped", "compressed csv", "gzipped csv", "csv gz", "csv gzip", "zipped csv");
+        trie.add(KeywordType.FORMAT, ReportFormat.COLUMNAR.name(), "columnar", "parquet");
+        trie.add(KeywordType.FORMAT, ReportFormat.PDF.name(), "pdf");
+        
+        // Time-related keywords
+        for (int i = 0; i < MONTHS.length; i++) {
+            String number = Integer.toString(i + 1);
+            trie.add(KeywordType.MONTH, number, MONTHS[i]);
+            if (MONTH_ABBREVIATIONS[i] != null) {
+                trie.add(KeywordType.MONTH, number, MONTH_ABBREVIATIONS[i]);
+            }
+        }
+        for (String word : new String[] {"from", "to", "between", "until", "till", "since", "after",
+                "last", "past", "previous", "this", "current", "today", "yesterday", "ytd",
+                "day", "days", "week", "weeks", "month", "months", "quarter", "quarters", "year", "years",
+                "q1", "q2", "q3", "q4"}) {
+            trie.add(KeywordType.TIME, word, word);
+        }
+        
+        // Invalid/generic keywords that should be rejected
+        for (String word : new String[] {"hello", "hi", "weather", "music", "play", "open", "joke",
+                "tell", "what", "how", "why", "when", "where", "who"}) {
+            trie.add(KeywordType.REJECT, word, word);
+        }
+        return trie;
+    }
+}
@@ -0,0 +1,9 @@
+package com.voicepoc.parser;
+
+// A command names a date that cannot exist, such as "february 30th"; parsing never widens it to another period
+public class InvalidDateException extends RuntimeException {
+    
+    public InvalidDateException(String message) {
+        super(message);
+    }
+}
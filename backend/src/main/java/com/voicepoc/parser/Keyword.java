@@ -0,0 +1,26 @@
+package com.voicepoc.parser;
+
+public class Keyword {
+    
+    private final KeywordType type;
+    private final String value;
+    
+    public Keyword(KeywordType type, String value) {
+        this.type = type;
+        this.value = value;
+    }
+    
+    public KeywordType getType() {
+        return type;
+    }
+    
+    // Canonical value, e.g. "Electronics" for "electronic", "3" for "march"
+    public String getValue() {
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return type + ":" + value;
+    }
+}
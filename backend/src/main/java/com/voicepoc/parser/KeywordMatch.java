@@ -0,0 +1,36 @@
+package com.voicepoc.parser;
+
+public class KeywordMatch {
+    
+    private final Keyword keyword;
+    private final int firstToken;
+    private final int lastToken;
+    
+    public KeywordMatch(Keyword keyword, int firstToken, int lastToken) {
+        this.keyword = keyword;
+        this.firstToken = firstToken;
+        this.lastToken = lastToken;
+    }
+    
+    public Keyword getKeyword() {
+        return keyword;
+    }
+    
+    public KeywordType getType() {
+        return keyword.getType();
+    }
+    
+    public String getValue() {
+        return keyword.getValue();
+    }
+    
+    // Index of the first matched token
+    public int getFirstToken() {
+        return firstToken;
+    }
+    
+    // Index of the last matched token (inclusive)
+    public int getLastToken() {
+        return lastToken;
+    }
+}
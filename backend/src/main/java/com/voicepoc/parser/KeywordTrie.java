@@ -0,0 +1,78 @@
+package com.voicepoc.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Trie over whole tokens, so keywords only ever match on word boundaries ("east" never matches "least")
+public class KeywordTrie {
+    
+    private final Node root = new Node();
+    private int maxPhraseLength;
+    private final Set<String> vocabulary = new HashSet<>();
+    
+    // Registers a keyword phrase; multi-word phrases ("last quarter") are split on spaces
+    public KeywordTrie add(String phrase, Keyword keyword) {
+        Node node = root;
+        String[] words = phrase.split(" ");
+        for (String word : words) {
+            node = node.children.computeIfAbsent(word, w -> new Node());
+            vocabulary.add(word);
+        }
+        node.keyword = keyword;
+        maxPhraseLength = Math.max(maxPhraseLength, words.length);
+        return this;
+    }
+    
+    public KeywordTrie add(KeywordType type, String value, String... phrases) {
+        Keyword keyword = new Keyword(type, value);
+        for (String phrase : phrases) {
+            add(phrase, keyword);
+        }
+        return this;
+    }
+    
+    // Single left-to-right pass taking the longest phrase at each position; matches never overlap
+    public List<KeywordMatch> match(List<Token> tokens) {
+        List<KeywordMatch> matches = new ArrayList<>();
+        int i = 0;
+        while (i < tokens.size()) {
+            Node node = root;
+            Keyword longest = null;
+            int longestEnd = -1;
+            
+            for (int j = i; j < tokens.size() && j - i < maxPhraseLength; j++) {
+                node = node.children.get(tokens.get(j).getText());
+                if (node == null) {
+                    break;
+                }
+                if (node.keyword != null) {
+                    longest = node.keyword;
+                    longestEnd = j;
+                }
+            }
+            
+            if (longest != null) {
+                matches.add(new KeywordMatch(longest, i, longestEnd));
+                i = longestEnd + 1;
+            } else {
+                i++;
+            }
+        }
+        return matches;
+    }
+    
+    // Every word of every registered phrase, including words that only mean something inside a longer phrase
+    public Set<String> words() {
+        return Collections.unmodifiableSet(vocabulary);
+    }
+    
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        Keyword keyword;
+    }
+}
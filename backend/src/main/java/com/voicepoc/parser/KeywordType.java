@@ -0,0 +1,31 @@
+package com.voicepoc.parser;
+
+public enum KeywordType {
+    
+    // Verbs and nouns that ask for a report ("generate", "sales", "summary")
+    ACTION,
+    // Filters; values come from sales_data through DimensionIndex
+    CATEGORY,
+    REGION,
+    PRODUCT,
+    CUSTOMER,
+    // Business nouns that are not filters themselves ("category", "revenue")
+    BUSINESS,
+    // Nouns a ranking or distinct count can be about ("products", "customers")
+    SUBJECT,
+    // Breakdown requests ("by region", "monthly")
+    GROUP_BY,
+    MONTH,
+    // Range connectors and relative periods ("from", "to", "last", "quarter")
+    TIME,
+    // Report file formats ("csv", "pdf", "compressed csv")
+    FORMAT,
+    // Connectors between compared periods ("vs", "compared to"); "and" only counts after "compare"
+    COMPARE,
+    // Asks for an estimate rather than an exact answer ("roughly", "approximately")
+    APPROXIMATE,
+    // Small talk that should never be treated as a report request
+    REJECT,
+    // Words beside a dimension cue ("region narnia") that match no stored value; the value names the dimension
+    UNMATCHED
+}
@@ -0,0 +1,42 @@
+package com.voicepoc.parser;
+
+public class Token {
+    
+    private final String text;
+    private final int start;
+    private final int end;
+    
+    public Token(String text, int start, int end) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    // Offset of the first character in the normalized command
+    public int getStart() {
+        return start;
+    }
+    
+    // Offset just past the last character in the normalized command
+    public int getEnd() {
+        return end;
+    }
+    
+    public boolean isNumeric() {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,261 @@
+package com.voicepoc.parser;
+
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.model.SalesDimension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class VoiceIntent {
+    
+    private static final int DEFAULT_TOP_N = 10;
+    
+    private final String command;
+    private final List<Token> tokens;
+    private final List<KeywordMatch> timeExpressions = new ArrayList<>();
+    private final List<KeywordMatch> connectors = new ArrayList<>();
+    
+    private IntentAction action;
+    private String category;
+    private String region;
+    private String productName;
+    private String customerName;
+    private SalesDimension groupBy;
+    private ReportFormat exportFormat;
+    private String rejectedKeyword;
+    private int businessMatches;
+    // Token index of "compare", or -1
+    private int compareToken = -1;
+    private List<VoiceIntent> comparedSegments = Collections.emptyList();
+    // "top" and "how many" matches, and the products/customers nouns they may refer to
+    private KeywordMatch rankMatch;
+    private KeywordMatch countMatch;
+    private final List<KeywordMatch> subjects = new ArrayList<>();
+    private boolean approximate;
+    // First name spoken beside a dimension cue that matched no stored value
+    private KeywordMatch unmatchedName;
+    
+    VoiceIntent(String command, List<Token> tokens) {
+        this.command = command;
+        this.tokens = tokens;
+    }
+    
+    // Records a keyword match; the first match of each kind wins, as the old contains() scans did
+    void accept(KeywordMatch match) {
+        switch (match.getType()) {
+            case ACTION -> {
+                if (action == null) {
+                    action = IntentAction.valueOf(match.getValue());
+                }
+                if (compareToken < 0 && IntentAction.COMPARE.name().equals(match.getValue())) {
+                    compareToken = match.getFirstToken();
+                }
+                if (rankMatch == null && IntentAction.RANK.name().equals(match.getValue())) {
+                    rankMatch = match;
+                }
+                if (countMatch == null && IntentAction.COUNT.name().equals(match.getValue())) {
+                    countMatch = match;
+                }
+            }
+            case CATEGORY -> {
+                businessMatches++;
+                if (category == null) {
+                    category = match.getValue();
+                }
+            }
+            case REGION -> {
+                businessMatches++;
+                if (region == null) {
+                    region = match.getValue();
+                }
+            }
+            case PRODUCT -> {
+                businessMatches++;
+                if (productName == null) {
+                    productName = match.getValue();
+                }
+            }
+            case CUSTOMER -> {
+                businessMatches++;
+                if (customerName == null) {
+                    customerName = match.getValue();
+                }
+            }
+            case BUSINESS -> businessMatches++;
+            case SUBJECT -> {
+                businessMatches++;
+                subjects.add(match);
+            }
+            case APPROXIMATE -> approximate = true;
+            case GROUP_BY -> {
+                businessMatches++;
+                if (groupBy == null) {
+                    groupBy = SalesDimension.valueOf(match.getValue());
+                }
+            }
+            case MONTH, TIME -> timeExpressions.add(match);
+            case COMPARE -> connectors.add(match);
+            case FORMAT -> {
+                if (exportFormat == null) {
+                    exportFormat = ReportFormat.valueOf(match.getValue());
+                }
+            }
+            case REJECT -> {
+                if (rejectedKeyword == null) {
+                    rejectedKeyword = match.getValue();
+                }
+            }
+            case UNMATCHED -> {
+                if (unmatchedName == null) {
+                    unmatchedName = match;
+                }
+            }
+        }
+    }
+    
+    // Valid if nothing conversational was said, a report was asked for, and there is business or time context
+    public boolean isReportCommand() {
+        return rejectedKeyword == null && action != null
+            && (businessMatches > 0 || !timeExpressions.isEmpty() || mentionsYear());
+    }
+    
+    // A bare year such as "2023", or the year of a numeric date, is time context without any time keyword
+    private boolean mentionsYear() {
+        for (Token token : tokens) {
+            if (token.getText().length() == 4 && token.isNumeric()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public String getCommand() {
+        return command;
+    }
+    
+    public List<Token> getTokens() {
+        return Collections.unmodifiableList(tokens);
+    }
+    
+    public IntentAction getAction() {
+        return action;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public SalesDimension getGroupBy() {
+        return groupBy;
+    }
+    
+    // What "top N" ranks: the first products/customers noun after "top", otherwise the command's breakdown
+    public SalesDimension getTopOf() {
+        if (rankMatch == null) {
+            return null;
+        }
+        SalesDimension subject = subjectAfter(rankMatch);
+        return subject != null ? subject : groupBy;
+    }
+    
+    // N from "top 5 products"; ten when no number follows, 0 for commands that rank nothing
+    public int getTopN() {
+        if (getTopOf() == null) {
+            return 0;
+        }
+        int next = rankMatch.getLastToken() + 1;
+        if (next < tokens.size() && tokens.get(next).isNumeric() && tokens.get(next).getText().length() <= 4) {
+            int n = Integer.parseInt(tokens.get(next).getText());
+            if (n > 0) {
+                return n;
+            }
+        }
+        return DEFAULT_TOP_N;
+    }
+    
+    // Products or customers for "how many unique customers ...", otherwise null
+    public SalesDimension getDistinctOf() {
+        return countMatch != null ? subjectAfter(countMatch) : null;
+    }
+    
+    // The words heard as a name, e.g. "narnia" in "region narnia", or null when every name matched
+    public String getUnmatchedName() {
+        return unmatchedName == null ? null
+            : command.substring(tokens.get(unmatchedName.getFirstToken()).getStart(),
+                tokens.get(unmatchedName.getLastToken()).getEnd());
+    }
+    
+    // "region", "category", "product" or "customer" for getUnmatchedName()
+    public String getUnmatchedDimension() {
+        return unmatchedName == null ? null : unmatchedName.getValue();
+    }
+    
+    // "roughly", "approximately": an estimate is acceptable
+    public boolean isApproximate() {
+        return approximate;
+    }
+    
+    private SalesDimension subjectAfter(KeywordMatch match) {
+        for (KeywordMatch subject : subjects) {
+            if (subject.getFirstToken() > match.getLastToken()) {
+                return SalesDimension.valueOf(subject.getValue());
+            }
+        }
+        return null;
+    }
+    
+    // Null unless the command named a file format
+    public ReportFormat getExportFormat() {
+        return exportFormat;
+    }
+    
+    // Month names, range connectors and relative periods in the order they were spoken
+    public List<KeywordMatch> getTimeExpressions() {
+        return Collections.unmodifiableList(timeExpressions);
+    }
+    
+    public String getRejectedKeyword() {
+        return rejectedKeyword;
+    }
+    
+    // Where the command splits into compared periods: every "vs", "compared to" and the like, or failing
+    // those every "and"/"with" after "compare". Empty for an ordinary command
+    public List<KeywordMatch> getComparisonConnectors() {
+        List<KeywordMatch> split = new ArrayList<>();
+        for (KeywordMatch connector : connectors) {
+            if (connector.getValue().equals("VERSUS")) {
+                split.add(connector);
+            }
+        }
+        if (split.isEmpty() && compareToken >= 0) {
+            for (KeywordMatch connector : connectors) {
+                if (connector.getFirstToken() > compareToken) {
+                    split.add(connector);
+                }
+            }
+        }
+        return split;
+    }
+    
+    // The command text between connectors, parsed separately; the first segment keeps the leading words
+    public List<VoiceIntent> getComparedSegments() {
+        return comparedSegments;
+    }
+    
+    void setComparedSegments(List<VoiceIntent> comparedSegments) {
+        this.comparedSegments = Collections.unmodifiableList(comparedSegments);
+    }
+}
@@ -0,0 +1,72 @@
+package com.voicepoc.repository;
+
+import java.time.LocalDate;
+
+// Any mix of sales_data filters; null fields are left out of the generated WHERE clause
+public class SalesDataFilter {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String category;
+    private String region;
+    private String productName;
+    private String customerName;
+    
+    public SalesDataFilter() {}
+    
+    public SalesDataFilter(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+    
+    public SalesDataFilter category(String category) {
+        this.category = category;
+        return this;
+    }
+    
+    public SalesDataFilter region(String region) {
+        this.region = region;
+        return this;
+    }
+    
+    public SalesDataFilter productName(String productName) {
+        this.productName = productName;
+        return this;
+    }
+    
+    public SalesDataFilter customerName(String customerName) {
+        this.customerName = customerName;
+        return this;
+    }
+    
+    // A copy with the same dimension filters over another date range; null dates leave the range open
+    public SalesDataFilter withDates(LocalDate startDate, LocalDate endDate) {
+        return new SalesDataFilter(startDate, endDate).category(category).region(region)
+            .productName(productName).customerName(customerName);
+    }
+    
+    // Getters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+}
@@ -2,6 +2,7 @@ package com.voicepoc.repository;
 
 import com.voicepoc.model.SalesData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +11,8 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface SalesDataRepository extends JpaRepository<SalesData, Long> {
+public interface SalesDataRepository extends JpaRepository<SalesData, Long>, JpaSpecificationExecutor<SalesData>,
+                                             SalesDataRepositoryCustom {
     
     List<SalesData> findBySalesDateBetween(LocalDate startDate, LocalDate endDate);
     
@@ -0,0 +1,48 @@
+package com.voicepoc.repository;
+
+import com.voicepoc.dto.SalesCell;
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.SalesData;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface SalesDataRepositoryCustom {
+    
+    List<SalesSummary> aggregateBy(SalesDimension dimension, SalesDataFilter filter);
+    
+    // Same result from sales_daily_rollup; only valid for date, category and region filters and non-product groupings
+    List<SalesSummary> aggregateFromRollup(SalesDimension dimension, SalesDataFilter filter);
+    
+    // Groups additionally split by category and region, unordered; lets one query serve several filters
+    List<SalesCell> aggregateCellsBy(SalesDimension dimension, SalesDataFilter filter);
+    
+    List<SalesCell> aggregateCellsFromRollup(SalesDimension dimension, SalesDataFilter filter);
+    
+    // One pass with conditional aggregation: a row per group with one set of totals per period. The filter's own
+    // dates are ignored, a null dimension gives a single "Total" row, and month groups are calendar months
+    List<SalesComparison> aggregatePeriods(SalesDimension dimension, SalesDataFilter filter, List<DateRange> periods);
+    
+    List<SalesComparison> aggregatePeriodsFromRollup(SalesDimension dimension, SalesDataFilter filter,
+                                                     List<DateRange> periods);
+    
+    // Matching rows and the number of distinct product or customer names among them, as {rows, distinct}
+    long[] countDistinct(SalesDimension dimension, SalesDataFilter filter);
+    
+    // Changes whenever a row dated in the range is inserted, updated or deleted: the row count and latest updated_at
+    String dataVersion(LocalDate startDate, LocalDate endDate);
+    
+    // Keyset page ordered by (salesDate, id); afterDate/afterId are the last row of the previous page
+    List<SalesData> findPage(LocalDate startDate, LocalDate endDate, LocalDate afterDate, Long afterId, int limit);
+    
+    // Must be consumed inside a transaction; rows are detached as they are read
+    Stream<SalesData> streamAll(LocalDate startDate, LocalDate endDate, int fetchSize);
+    
+    // Matching rows as projections, newest first; must be consumed inside a transaction
+    Stream<SalesRow> streamRows(SalesDataFilter filter, int fetchSize);
+}
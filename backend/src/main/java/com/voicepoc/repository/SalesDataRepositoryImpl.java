@@ -0,0 +1,322 @@
+package com.voicepoc.repository;
+
+import com.voicepoc.dto.SalesCell;
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.SalesDailyRollup;
+import com.voicepoc.model.SalesData;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Picked up by Spring Data as the implementation of SalesDataRepositoryCustom
+public class SalesDataRepositoryImpl implements SalesDataRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<SalesSummary> aggregateBy(SalesDimension dimension, SalesDataFilter filter) {
+        return toSummaries(aggregate(SalesData.class, dimension, filter, false), dimension);
+    }
+    
+    @Override
+    public List<SalesSummary> aggregateFromRollup(SalesDimension dimension, SalesDataFilter filter) {
+        checkRollupCanAnswer(dimension, filter);
+        return toSummaries(aggregate(SalesDailyRollup.class, dimension, filter, false), dimension);
+    }
+    
+    @Override
+    public List<SalesCell> aggregateCellsBy(SalesDimension dimension, SalesDataFilter filter) {
+        return toCells(aggregate(SalesData.class, dimension, filter, true), dimension);
+    }
+    
+    @Override
+    public List<SalesCell> aggregateCellsFromRollup(SalesDimension dimension, SalesDataFilter filter) {
+        checkRollupCanAnswer(dimension, filter);
+        return toCells(aggregate(SalesDailyRollup.class, dimension, filter, true), dimension);
+    }
+    
+    @Override
+    public List<SalesComparison> aggregatePeriods(SalesDimension dimension, SalesDataFilter filter,
+                                                  List<DateRange> periods) {
+        return aggregatePeriods(SalesData.class, dimension, filter, periods);
+    }
+    
+    @Override
+    public List<SalesComparison> aggregatePeriodsFromRollup(SalesDimension dimension, SalesDataFilter filter,
+                                                            List<DateRange> periods) {
+        checkRollupCanAnswer(dimension, filter);
+        return aggregatePeriods(SalesDailyRollup.class, dimension, filter, periods);
+    }
+    
+    // Rows outside every period are excluded by an OR of the period ranges, so the gap between
+    // "this month" and "this month last year" is never read
+    private List<SalesComparison> aggregatePeriods(Class<?> source, SalesDimension dimension, SalesDataFilter filter,
+                                                   List<DateRange> periods) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> s = query.from(source);
+        boolean rollup = source == SalesDailyRollup.class;
+        
+        List<Expression<?>> keys = new ArrayList<>();
+        if (dimension != null) {
+            switch (dimension) {
+                case CATEGORY -> keys.add(s.get("category"));
+                case REGION -> keys.add(s.get("region"));
+                case PRODUCT -> keys.add(s.get("productName"));
+                case CUSTOMER -> keys.add(s.get("customerName"));
+                case MONTH -> {
+                    keys.add(cb.year(s.get("salesDate")));
+                    keys.add(cb.month(s.get("salesDate")));
+                }
+            }
+        }
+        
+        List<Selection<?>> selections = new ArrayList<>(keys);
+        List<Predicate> inPeriods = new ArrayList<>();
+        for (DateRange period : periods) {
+            Predicate inPeriod = cb.between(s.get("salesDate"), period.getStartDate(), period.getEndDate());
+            inPeriods.add(inPeriod);
+            Expression<Long> count = rollup ? s.get("recordCount") : cb.literal(1L);
+            Expression<? extends Number> quantity = rollup ? s.<Long>get("totalQuantity") : s.<Integer>get("quantity");
+            // No ELSE branch: rows of other periods are NULL and skipped by SUM, and no typed zero has to be bound
+            selections.add(cb.sum(cb.<Long>selectCase().when(inPeriod, count)));
+            selections.add(cb.sum(cb.<Number>selectCase().when(inPeriod, quantity)));
+            selections.add(cb.sum(cb.<BigDecimal>selectCase()
+                .when(inPeriod, s.<BigDecimal>get(rollup ? "totalRevenue" : "totalAmount"))));
+        }
+        
+        List<Predicate> predicates = new ArrayList<>(
+            List.of(SalesDataSpecifications.predicates(filter.withDates(null, null), s, cb)));
+        predicates.add(cb.or(inPeriods.toArray(new Predicate[0])));
+        
+        query.multiselect(selections).where(predicates.toArray(new Predicate[0]));
+        if (!keys.isEmpty()) {
+            query.groupBy(keys);
+        }
+        
+        List<SalesComparison> comparisons = new ArrayList<>();
+        int valueIndex = keys.size();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            long[] counts = new long[periods.size()];
+            long[] quantities = new long[periods.size()];
+            BigDecimal[] revenues = new BigDecimal[periods.size()];
+            for (int p = 0; p < periods.size(); p++) {
+                counts[p] = toLong(tuple.get(valueIndex + 3 * p));
+                quantities[p] = toLong(tuple.get(valueIndex + 3 * p + 1));
+                Object revenue = tuple.get(valueIndex + 3 * p + 2);
+                revenues[p] = revenue != null ? (BigDecimal) revenue : BigDecimal.ZERO;
+            }
+            String groupKey = dimension == null ? "Total" : groupKey(tuple, dimension);
+            comparisons.add(new SalesComparison(groupKey, counts, quantities, revenues));
+        }
+        return comparisons;
+    }
+    
+    @Override
+    public long[] countDistinct(SalesDimension dimension, SalesDataFilter filter) {
+        String attribute = switch (dimension) {
+            case PRODUCT -> "productName";
+            case CUSTOMER -> "customerName";
+            default -> throw new IllegalArgumentException("Distinct counts are only kept for products and customers, not "
+                + dimension);
+        };
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<SalesData> s = query.from(SalesData.class);
+        query.multiselect(cb.count(s), cb.countDistinct(s.get(attribute)))
+            .where(SalesDataSpecifications.predicates(filter, s, cb));
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+        return new long[] {toLong(tuple.get(0)), toLong(tuple.get(1))};
+    }
+    
+    @Override
+    public String dataVersion(LocalDate startDate, LocalDate endDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<SalesData> s = query.from(SalesData.class);
+        query.multiselect(cb.count(s), cb.greatest(s.<LocalDateTime>get("updatedAt")))
+            .where(SalesDataSpecifications.predicates(new SalesDataFilter(startDate, endDate), s, cb));
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+        return toLong(tuple.get(0)) + "@" + tuple.get(1);
+    }
+    
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+    
+    private static void checkRollupCanAnswer(SalesDimension dimension, SalesDataFilter filter) {
+        if (dimension == SalesDimension.PRODUCT || dimension == SalesDimension.CUSTOMER || filter.getProductName() != null || filter.getCustomerName() != null) {
+            throw new IllegalArgumentException("sales_daily_rollup has no product or customer detail");
+        }
+    }
+    
+    // Tuples are the group key expression(s), optionally category and region, then count, quantity and revenue
+    private List<Tuple> aggregate(Class<?> source, SalesDimension dimension, SalesDataFilter filter,
+                                  boolean byCategoryAndRegion) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> s = query.from(source);
+        boolean rollup = source == SalesDailyRollup.class;
+        
+        // Month is grouped on year and month separately so the GROUP BY carries no bound parameters
+        List<Expression<?>> keys = new ArrayList<>();
+        switch (dimension) {
+            case CATEGORY -> keys.add(s.get("category"));
+            case REGION -> keys.add(s.get("region"));
+            case PRODUCT -> keys.add(s.get("productName"));
+            case CUSTOMER -> keys.add(s.get("customerName"));
+            case MONTH -> {
+                keys.add(cb.year(s.get("salesDate")));
+                keys.add(cb.month(s.get("salesDate")));
+            }
+        }
+        List<Expression<?>> groupBy = new ArrayList<>(keys);
+        if (byCategoryAndRegion) {
+            groupBy.add(s.get("category"));
+            groupBy.add(s.get("region"));
+        }
+        
+        // Rollup rows are already partial sums, so counts are summed rather than counted
+        Expression<Long> recordCount = rollup ? cb.sum(s.<Long>get("recordCount")) : cb.count(s);
+        Expression<? extends Number> totalQuantity = rollup
+            ? cb.sum(s.<Long>get("totalQuantity")) : cb.sum(s.<Integer>get("quantity"));
+        Expression<BigDecimal> totalRevenue = cb.sum(s.<BigDecimal>get(rollup ? "totalRevenue" : "totalAmount"));
+        
+        List<Selection<?>> selections = new ArrayList<>(groupBy);
+        selections.add(recordCount);
+        selections.add(totalQuantity);
+        selections.add(totalRevenue);
+        
+        query.multiselect(selections)
+            .where(SalesDataSpecifications.predicates(filter, s, cb))
+            .groupBy(groupBy);
+        
+        // Cells are re-aggregated by the caller, so only plain summaries need ordering
+        if (!byCategoryAndRegion) {
+            if (dimension == SalesDimension.MONTH) {
+                query.orderBy(cb.asc(keys.get(0)), cb.asc(keys.get(1)));
+            } else {
+                query.orderBy(cb.desc(totalRevenue));
+            }
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    private static List<SalesSummary> toSummaries(List<Tuple> tuples, SalesDimension dimension) {
+        List<SalesSummary> summaries = new ArrayList<>();
+        int valueIndex = keyWidth(dimension);
+        for (Tuple tuple : tuples) {
+            summaries.add(new SalesSummary(
+                groupKey(tuple, dimension),
+                ((Number) tuple.get(valueIndex)).longValue(),
+                ((Number) tuple.get(valueIndex + 1)).longValue(),
+                (BigDecimal) tuple.get(valueIndex + 2)
+            ));
+        }
+        return summaries;
+    }
+    
+    private static List<SalesCell> toCells(List<Tuple> tuples, SalesDimension dimension) {
+        List<SalesCell> cells = new ArrayList<>();
+        int valueIndex = keyWidth(dimension) + 2;
+        for (Tuple tuple : tuples) {
+            cells.add(new SalesCell(
+                groupKey(tuple, dimension),
+                (String) tuple.get(valueIndex - 2),
+                (String) tuple.get(valueIndex - 1),
+                ((Number) tuple.get(valueIndex)).longValue(),
+                ((Number) tuple.get(valueIndex + 1)).longValue(),
+                (BigDecimal) tuple.get(valueIndex + 2)
+            ));
+        }
+        return cells;
+    }
+    
+    private static int keyWidth(SalesDimension dimension) {
+        return dimension == SalesDimension.MONTH ? 2 : 1;
+    }
+    
+    private static String groupKey(Tuple tuple, SalesDimension dimension) {
+        return dimension == SalesDimension.MONTH
+            ? String.format("%04d-%02d", ((Number) tuple.get(0)).intValue(), ((Number) tuple.get(1)).intValue())
+            : (String) tuple.get(0);
+    }
+    
+    @Override
+    public List<SalesData> findPage(LocalDate startDate, LocalDate endDate, LocalDate afterDate, Long afterId, int limit) {
+        CriteriaQuery<SalesData> query = orderedByDateAndId(startDate, endDate, afterDate, afterId);
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public Stream<SalesData> streamAll(LocalDate startDate, LocalDate endDate, int fetchSize) {
+        CriteriaQuery<SalesData> query = orderedByDateAndId(startDate, endDate, null, null);
+        return entityManager.createQuery(query)
+            .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(AvailableHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .peek(entityManager::detach);
+    }
+    
+    @Override
+    public Stream<SalesRow> streamRows(SalesDataFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SalesRow> query = cb.createQuery(SalesRow.class);
+        Root<SalesData> s = query.from(SalesData.class);
+        
+        // Constructor projection: plain column values, nothing enters the persistence context
+        query.select(cb.construct(SalesRow.class,
+                s.get("id"), s.get("productName"), s.get("category"), s.get("salesDate"), s.get("quantity"),
+                s.get("unitPrice"), s.get("totalAmount"), s.get("customerName"), s.get("region")))
+            .where(SalesDataSpecifications.predicates(filter, s, cb))
+            .orderBy(cb.desc(s.get("salesDate")), cb.desc(s.get("id")));
+        
+        return entityManager.createQuery(query)
+            .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+            .getResultStream();
+    }
+    
+    private CriteriaQuery<SalesData> orderedByDateAndId(LocalDate startDate, LocalDate endDate,
+                                                        LocalDate afterDate, Long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SalesData> query = cb.createQuery(SalesData.class);
+        Root<SalesData> s = query.from(SalesData.class);
+        
+        List<Predicate> predicates = new ArrayList<>(
+            List.of(SalesDataSpecifications.predicates(new SalesDataFilter(startDate, endDate), s, cb)));
+        if (afterDate != null && afterId != null) {
+            // (sales_date, id) > (afterDate, afterId), with a plain lower bound so the index range scan starts there
+            predicates.add(cb.greaterThanOrEqualTo(s.get("salesDate"), afterDate));
+            predicates.add(cb.or(
+                cb.greaterThan(s.get("salesDate"), afterDate),
+                cb.and(cb.equal(s.get("salesDate"), afterDate), cb.greaterThan(s.get("id"), afterId))
+            ));
+        }
+        
+        return query.select(s)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.asc(s.get("salesDate")), cb.asc(s.get("id")));
+    }
+}
@@ -0,0 +1,46 @@
+package com.voicepoc.repository;
+
+import com.voicepoc.model.SalesData;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SalesDataSpecifications {
+    
+    private SalesDataSpecifications() {}
+    
+    public static Specification<SalesData> matching(SalesDataFilter filter) {
+        return (root, query, cb) -> cb.and(predicates(filter, root, cb));
+    }
+    
+    // Shared with the Criteria aggregates so list and grouped queries filter identically.
+    // The date range comes first and equality filters follow, matching idx_sales_data_date_range (sales_date, category, region)
+    // Plain bounds on the bare sales_date column also let PostgreSQL prune sales_data partitions, at plan time for
+    // literals and at executor start for bound parameters; wrapping the column in a function or cast would defeat both
+    static Predicate[] predicates(SalesDataFilter filter, Root<?> s, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(s.get("salesDate"), filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(s.get("salesDate"), filter.getEndDate()));
+        }
+        if (filter.getCategory() != null) {
+            predicates.add(cb.equal(s.get("category"), filter.getCategory()));
+        }
+        if (filter.getRegion() != null) {
+            predicates.add(cb.equal(s.get("region"), filter.getRegion()));
+        }
+        if (filter.getProductName() != null) {
+            predicates.add(cb.equal(s.get("productName"), filter.getProductName()));
+        }
+        if (filter.getCustomerName() != null) {
+            predicates.add(cb.equal(s.get("customerName"), filter.getCustomerName()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,245 @@
+package com.voicepoc.service;
+
+import com.voicepoc.analytics.ColumnarSalesEngine;
+import com.voicepoc.dto.SalesCell;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.repository.SalesDataFilter;
+import com.voicepoc.repository.SalesDataRepository;
+import com.voicepoc.service.VoiceCommandMetrics.Stage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Groups the distinct queries of a batch so related ones share a database scan:
+// detail queries with overlapping dates read the union range once and split rows in memory, and grouped
+// queries over the same period and dimension read one aggregate split by category and region
+@Service
+public class BatchQueryPlanner {
+    
+    @Autowired
+    private SalesDataRepository salesDataRepository;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private ColumnarSalesEngine columnarSalesEngine;
+    
+    @Autowired
+    private ReportGenerationService reportGenerationService;
+    
+    @Autowired
+    private VoiceCommandMetrics metrics;
+    
+    @Value("${voice.response.max-rows:1000}")
+    private int maxResponseRows = 1000;
+    
+    @Value("${sales.api.stream-fetch-size:1000}")
+    private int fetchSize = 1000;
+    
+    // Rows a shared detail scan may hold for all its keys together; past this each key streams on its own
+    @Value("${voice.batch.detail-row-budget:100000}")
+    private long detailRowBudget = 100000;
+    
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public BatchQueryPlanner(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    // Each returned group is answered by one scan; comparisons already cover all their periods in one
+    // scan, and distinct-count and top-N questions may not scan at all, so both are left in groups of their own
+    public List<List<QueryKey>> plan(Collection<QueryKey> keys) {
+        List<QueryKey> detail = new ArrayList<>();
+        Map<List<Object>, List<QueryKey>> grouped = new LinkedHashMap<>();
+        List<List<QueryKey>> standalone = new ArrayList<>();
+        for (QueryKey key : keys) {
+            if (key.isComparison() || key.isQuestion()) {
+                standalone.add(List.of(key));
+            } else if (key.getGroupBy() == null) {
+                detail.add(key);
+            } else {
+                // Product and customer are not split out of the shared cells, so they partition the groups
+                grouped.computeIfAbsent(Arrays.asList(key.getGroupBy(), key.getStartDate(), key.getEndDate(),
+                    key.getProductName(), key.getCustomerName()), k -> new ArrayList<>()).add(key);
+            }
+        }
+        
+        // Detail ranges are merged when they overlap or touch, like merging intervals
+        detail.sort(Comparator.comparing(QueryKey::getStartDate));
+        List<List<QueryKey>> groups = new ArrayList<>();
+        List<QueryKey> current = null;
+        LocalDate currentEnd = null;
+        for (QueryKey key : detail) {
+            if (current == null || key.getStartDate().isAfter(currentEnd.plusDays(1))) {
+                current = new ArrayList<>();
+                groups.add(current);
+                currentEnd = key.getEndDate();
+            } else if (key.getEndDate().isAfter(currentEnd)) {
+                currentEnd = key.getEndDate();
+            }
+            current.add(key);
+        }
+        groups.addAll(grouped.values());
+        groups.addAll(standalone);
+        return groups;
+    }
+    
+    // Null when a detail group matched more rows than the budget; the caller then answers each key on its own
+    public Map<QueryKey, QueryResult> execute(List<QueryKey> group) {
+        return group.get(0).getGroupBy() == null ? executeDetail(group) : executeGrouped(group);
+    }
+    
+    private Map<QueryKey, QueryResult> executeDetail(List<QueryKey> group) {
+        Map<QueryKey, List<SalesRow>> rowsByKey = new LinkedHashMap<>();
+        group.forEach(key -> rowsByKey.put(key, new ArrayList<>()));
+        
+        // Every matching row is held until the reports are written, so the scan gives up once the group
+        // holds more than the budget rather than loading a year of sales into the heap
+        Boolean withinBudget = metrics.time(Stage.DETAIL, () -> readOnlyTransaction.execute(status -> {
+            long buffered = 0;
+            try (Stream<SalesRow> rows = salesDataRepository.streamRows(union(group), fetchSize)) {
+                Iterator<SalesRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    SalesRow row = iterator.next();
+                    for (Map.Entry<QueryKey, List<SalesRow>> entry : rowsByKey.entrySet()) {
+                        if (matches(entry.getKey(), row)) {
+                            entry.getValue().add(row);
+                            buffered++;
+                        }
+                    }
+                    if (buffered > detailRowBudget) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }));
+        if (!Boolean.TRUE.equals(withinBudget)) {
+            return null;
+        }
+        
+        Map<QueryKey, QueryResult> results = new LinkedHashMap<>();
+        rowsByKey.forEach((key, rows) -> {
+            String reportUrl = reportGenerationService.generateReport(rows, key);
+            List<SalesRow> leadingRows = rows.size() > maxResponseRows
+                ? new ArrayList<>(rows.subList(0, maxResponseRows)) : rows;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (SalesRow row : rows) {
+                totalAmount = totalAmount.add(row.getTotalAmount());
+            }
+            metrics.recordRows(null, rows.size());
+            results.put(key, new QueryResult(leadingRows, null, rows.size(), totalAmount, reportUrl));
+        });
+        return results;
+    }
+    
+    private Map<QueryKey, QueryResult> executeGrouped(List<QueryKey> group) {
+        SalesDimension dimension = group.get(0).getGroupBy();
+        Map<QueryKey, List<SalesSummary>> summaries = new LinkedHashMap<>();
+        
+        // The in-memory engine answers each key without a scan; otherwise one split aggregate serves them all
+        for (QueryKey key : group) {
+            List<SalesSummary> summary = metrics.time(Stage.AGGREGATE, () -> columnarSalesEngine.aggregate(dimension,
+                new SalesDataFilter(key.getStartDate(), key.getEndDate()).category(key.getCategory()).region(key.getRegion())
+                    .productName(key.getProductName()).customerName(key.getCustomerName())));
+            if (summary == null) {
+                summaries.clear();
+                break;
+            }
+            summaries.put(key, summary);
+        }
+        if (summaries.isEmpty()) {
+            List<SalesCell> cells = metrics.time(Stage.AGGREGATE,
+                () -> salesRollupService.aggregateCells(dimension, union(group)));
+            group.forEach(key -> summaries.put(key, rollUp(cells, key)));
+        }
+        
+        Map<QueryKey, QueryResult> results = new LinkedHashMap<>();
+        for (QueryKey key : group) {
+            List<SalesSummary> summary = summaries.get(key);
+            String reportUrl = metrics.time(Stage.REPORT, () -> reportGenerationService.generateSummaryReport(summary, key));
+            long recordCount = summary.stream().mapToLong(SalesSummary::getRecordCount).sum();
+            metrics.recordRows(dimension, recordCount);
+            results.put(key, new QueryResult(null, summary, recordCount, QueryResult.totalRevenue(summary), reportUrl));
+        }
+        return results;
+    }
+    
+    // Same groups and ordering as SalesDataRepository.aggregateBy for this key alone
+    private static List<SalesSummary> rollUp(List<SalesCell> cells, QueryKey key) {
+        Map<String, long[]> counts = new LinkedHashMap<>();
+        Map<String, BigDecimal> revenue = new LinkedHashMap<>();
+        for (SalesCell cell : cells) {
+            if ((key.getCategory() != null && !key.getCategory().equals(cell.getCategory()))
+                    || (key.getRegion() != null && !key.getRegion().equals(cell.getRegion()))) {
+                continue;
+            }
+            long[] totals = counts.computeIfAbsent(cell.getGroupKey(), k -> new long[2]);
+            totals[0] += cell.getRecordCount();
+            totals[1] += cell.getTotalQuantity();
+            revenue.merge(cell.getGroupKey(), cell.getTotalRevenue(), BigDecimal::add);
+        }
+        
+        List<SalesSummary> summary = new ArrayList<>();
+        counts.forEach((groupKey, totals) ->
+            summary.add(new SalesSummary(groupKey, totals[0], totals[1], revenue.get(groupKey))));
+        summary.sort(key.getGroupBy() == SalesDimension.MONTH
+            ? Comparator.comparing(SalesSummary::getGroupKey)
+            : Comparator.comparing(SalesSummary::getTotalRevenue).reversed());
+        return summary;
+    }
+    
+    // Widest filter covering every key: the date span, plus each value filter only when all keys agree
+    private static SalesDataFilter union(List<QueryKey> group) {
+        LocalDate start = group.stream().map(QueryKey::getStartDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate end = group.stream().map(QueryKey::getEndDate).max(Comparator.naturalOrder()).orElseThrow();
+        String category = group.get(0).getCategory();
+        String region = group.get(0).getRegion();
+        String productName = group.get(0).getProductName();
+        String customerName = group.get(0).getCustomerName();
+        for (QueryKey key : group) {
+            if (!Objects.equals(category, key.getCategory())) {
+                category = null;
+            }
+            if (!Objects.equals(region, key.getRegion())) {
+                region = null;
+            }
+            if (!Objects.equals(productName, key.getProductName())) {
+                productName = null;
+            }
+            if (!Objects.equals(customerName, key.getCustomerName())) {
+                customerName = null;
+            }
+        }
+        return new SalesDataFilter(start, end).category(category).region(region)
+            .productName(productName).customerName(customerName);
+    }
+    
+    private static boolean matches(QueryKey key, SalesRow row) {
+        return !row.getSalesDate().isBefore(key.getStartDate())
+            && !row.getSalesDate().isAfter(key.getEndDate())
+            && (key.getCategory() == null || key.getCategory().equals(row.getCategory()))
+            && (key.getRegion() == null || key.getRegion().equals(row.getRegion()))
+            && (key.getProductName() == null || key.getProductName().equals(row.getProductName()))
+            && (key.getCustomerName() == null || key.getCustomerName().equals(row.getCustomerName()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.voicepoc.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes the .vcol layout: a schema followed by row groups in which every column is stored contiguously.
+// Text columns are dictionary-encoded per group and numeric columns are delta-encoded; both as zig-zag varints.
+//
+//   file      = "VCOL" version:u8 columnCount:u16 (name:utf type:u8)* rowGroup* 0:u32
+//   rowGroup  = rowCount:u32 column*
+//   STRING    = dictionarySize:varint (value:utf)* code:varint * rowCount
+//   INT, LONG = (value - previous value):zigzag-varint * rowCount, previous starting at 0
+class ColumnarFileWriter {
+    
+    static final byte[] MAGIC = "VCOL".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    
+    enum ColumnType {
+        STRING, INT, LONG
+    }
+    
+    private final DataOutputStream out;
+    private final ColumnType[] types;
+    private final int rowGroupSize;
+    
+    private final String[][] strings;
+    private final long[][] numbers;
+    private int buffered;
+    private long rowCount;
+    
+    ColumnarFileWriter(OutputStream target, String[] names, ColumnType[] types, int rowGroupSize) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        this.types = types;
+        this.rowGroupSize = rowGroupSize;
+        this.strings = new String[types.length][];
+        this.numbers = new long[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == ColumnType.STRING) {
+                strings[i] = new String[rowGroupSize];
+            } else {
+                numbers[i] = new long[rowGroupSize];
+            }
+        }
+        
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.writeUTF(names[i]);
+            out.writeByte(types[i].ordinal());
+        }
+    }
+    
+    void setString(int column, String value) {
+        strings[column][buffered] = value != null ? value : "";
+    }
+    
+    void setNumber(int column, long value) {
+        numbers[column][buffered] = value;
+    }
+    
+    // Call once every column of the current row has been set
+    void endRow() throws IOException {
+        buffered++;
+        rowCount++;
+        if (buffered == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+    
+    // Writes the last partial group and the end marker; the target stream stays open
+    void finish() throws IOException {
+        if (buffered > 0) {
+            flushRowGroup();
+        }
+        out.writeInt(0);
+        out.flush();
+    }
+    
+    long getRowCount() {
+        return rowCount;
+    }
+    
+    private void flushRowGroup() throws IOException {
+        out.writeInt(buffered);
+        for (int column = 0; column < types.length; column++) {
+            if (types[column] == ColumnType.STRING) {
+                writeDictionaryColumn(strings[column]);
+            } else {
+                writeDeltaColumn(numbers[column]);
+            }
+        }
+        for (String[] values : strings) {
+            if (values != null) {
+                Arrays.fill(values, 0, buffered, null);
+            }
+        }
+        buffered = 0;
+    }
+    
+    private void writeDictionaryColumn(String[] values) throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] encoded = new int[buffered];
+        for (int row = 0; row < buffered; row++) {
+            Integer code = codes.get(values[row]);
+            if (code == null) {
+                code = dictionary.size();
+                codes.put(values[row], code);
+                dictionary.add(values[row]);
+            }
+            encoded[row] = code;
+        }
+        writeVarint(dictionary.size());
+        for (String value : dictionary) {
+            out.writeUTF(value);
+        }
+        for (int row = 0; row < buffered; row++) {
+            writeVarint(encoded[row]);
+        }
+    }
+    
+    private void writeDeltaColumn(long[] values) throws IOException {
+        long previous = 0;
+        for (int row = 0; row < buffered; row++) {
+            long delta = values[row] - previous;
+            writeVarint((delta << 1) ^ (delta >> 63));
+            previous = values[row];
+        }
+    }
+    
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
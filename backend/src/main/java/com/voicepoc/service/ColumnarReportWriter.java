@@ -0,0 +1,104 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.service.ColumnarFileWriter.ColumnType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Parquet-style binary export: dates as epoch days and money as cents, so readers need no parsing
+@Component
+public class ColumnarReportWriter implements SalesReportWriter {
+    
+    private static final String[] DETAIL_COLUMNS = {"id", "product_name", "category", "sales_date", "quantity",
+        "unit_price_cents", "total_amount_cents", "customer_name", "region"};
+    
+    private static final ColumnType[] DETAIL_TYPES = {ColumnType.LONG, ColumnType.STRING, ColumnType.STRING,
+        ColumnType.INT, ColumnType.INT, ColumnType.LONG, ColumnType.LONG, ColumnType.STRING, ColumnType.STRING};
+    
+    // Rows buffered per row group; bounds writer memory and lets readers skip or parallelise by group
+    @Value("${report.columnar.row-group-size:65536}")
+    private int rowGroupSize = 65536;
+    
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.COLUMNAR;
+    }
+    
+    @Override
+    public void writeDetail(Stream<SalesRow> rows, QueryKey key, OutputStream out) throws IOException {
+        ColumnarFileWriter writer = new ColumnarFileWriter(out, DETAIL_COLUMNS, DETAIL_TYPES, rowGroupSize);
+        try {
+            rows.forEach(row -> {
+                writer.setNumber(0, row.getId());
+                writer.setString(1, row.getProductName());
+                writer.setString(2, row.getCategory());
+                writer.setNumber(3, row.getSalesDate().toEpochDay());
+                writer.setNumber(4, row.getQuantity());
+                writer.setNumber(5, SalesPivot.toCents(row.getUnitPrice()));
+                writer.setNumber(6, SalesPivot.toCents(row.getTotalAmount()));
+                writer.setString(7, row.getCustomerName());
+                writer.setString(8, row.getRegion());
+                try {
+                    writer.endRow();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+    
+    @Override
+    public void writeSummary(List<SalesSummary> summary, QueryKey key, OutputStream out) throws IOException {
+        String[] columns = {key.getGroupBy().name().toLowerCase(), "record_count", "total_quantity", "total_revenue_cents"};
+        ColumnType[] types = {ColumnType.STRING, ColumnType.LONG, ColumnType.LONG, ColumnType.LONG};
+        ColumnarFileWriter writer = new ColumnarFileWriter(out, columns, types, rowGroupSize);
+        for (SalesSummary group : summary) {
+            writer.setString(0, group.getGroupKey());
+            writer.setNumber(1, group.getRecordCount());
+            writer.setNumber(2, group.getTotalQuantity());
+            writer.setNumber(3, SalesPivot.toCents(group.getTotalRevenue()));
+            writer.endRow();
+        }
+        writer.finish();
+    }
+    
+    // Long form like the CSV; growth is left to the reader since it has no value when the later period is empty
+    @Override
+    public void writeComparison(List<SalesComparison> comparison, QueryKey key, OutputStream out) throws IOException {
+        String[] columns = {key.getGroupBy() != null ? key.getGroupBy().name().toLowerCase() : "group", "period",
+            "start_date", "end_date", "record_count", "total_quantity", "total_revenue_cents", "revenue_change_cents"};
+        ColumnType[] types = {ColumnType.STRING, ColumnType.INT, ColumnType.INT, ColumnType.INT, ColumnType.LONG,
+            ColumnType.LONG, ColumnType.LONG, ColumnType.LONG};
+        ColumnarFileWriter writer = new ColumnarFileWriter(out, columns, types, rowGroupSize);
+        List<DateRange> periods = key.getPeriods();
+        for (SalesComparison group : comparison) {
+            long firstCents = SalesPivot.toCents(group.getTotalRevenues()[0]);
+            for (int p = 0; p < periods.size(); p++) {
+                long cents = SalesPivot.toCents(group.getTotalRevenues()[p]);
+                writer.setString(0, group.getGroupKey());
+                writer.setNumber(1, p + 1);
+                writer.setNumber(2, periods.get(p).getStartDate().toEpochDay());
+                writer.setNumber(3, periods.get(p).getEndDate().toEpochDay());
+                writer.setNumber(4, group.getRecordCounts()[p]);
+                writer.setNumber(5, group.getTotalQuantities()[p]);
+                writer.setNumber(6, cents);
+                writer.setNumber(7, firstCents - cents);
+                writer.endRow();
+            }
+        }
+        writer.finish();
+    }
+}
@@ -0,0 +1,162 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.parser.DateRange;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+// RFC 4180 CSV written row by row; the detail header matches what SalesDataBulkLoader imports
+@Component
+public class CsvReportWriter implements SalesReportWriter {
+    
+    private static final String DETAIL_HEADER =
+        "id,product_name,category,sales_date,quantity,unit_price,total_amount,customer_name,region";
+    
+    private static final int BUFFER_CHARS = 64 * 1024;
+    
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.CSV;
+    }
+    
+    @Override
+    public void writeDetail(Stream<SalesRow> rows, QueryKey key, OutputStream out) throws IOException {
+        OutputStream encoded = encode(out);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(encoded, StandardCharsets.UTF_8), BUFFER_CHARS);
+        writer.write(DETAIL_HEADER);
+        writer.write("\r\n");
+        try {
+            rows.forEach(row -> {
+                try {
+                    writer.write(Long.toString(row.getId()));
+                    writer.write(',');
+                    writeText(writer, row.getProductName());
+                    writer.write(',');
+                    writeText(writer, row.getCategory());
+                    writer.write(',');
+                    writer.write(row.getSalesDate().toString());
+                    writer.write(',');
+                    writer.write(Integer.toString(row.getQuantity()));
+                    writer.write(',');
+                    writeAmount(writer, row.getUnitPrice());
+                    writer.write(',');
+                    writeAmount(writer, row.getTotalAmount());
+                    writer.write(',');
+                    writeText(writer, row.getCustomerName());
+                    writer.write(',');
+                    writeText(writer, row.getRegion());
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        complete(encoded);
+    }
+    
+    @Override
+    public void writeSummary(List<SalesSummary> summary, QueryKey key, OutputStream out) throws IOException {
+        OutputStream encoded = encode(out);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(encoded, StandardCharsets.UTF_8), BUFFER_CHARS);
+        writer.write(key.getGroupBy().name().toLowerCase());
+        writer.write(",record_count,total_quantity,total_revenue\r\n");
+        for (SalesSummary group : summary) {
+            writeText(writer, group.getGroupKey());
+            writer.write(',');
+            writer.write(Long.toString(group.getRecordCount()));
+            writer.write(',');
+            writer.write(Long.toString(group.getTotalQuantity()));
+            writer.write(',');
+            writeAmount(writer, group.getTotalRevenue());
+            writer.write("\r\n");
+        }
+        writer.flush();
+        complete(encoded);
+    }
+    
+    // Long form, one line per group and period, so the file loads into a table without reshaping;
+    // change and growth compare the first period with the line's period and are empty on the first period's lines
+    @Override
+    public void writeComparison(List<SalesComparison> comparison, QueryKey key, OutputStream out) throws IOException {
+        OutputStream encoded = encode(out);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(encoded, StandardCharsets.UTF_8), BUFFER_CHARS);
+        writer.write(key.getGroupBy() != null ? key.getGroupBy().name().toLowerCase() : "group");
+        writer.write(",period,start_date,end_date,record_count,total_quantity,total_revenue,revenue_change,revenue_growth_pct\r\n");
+        List<DateRange> periods = key.getPeriods();
+        for (SalesComparison group : comparison) {
+            BigDecimal[] changes = group.getRevenueChanges();
+            BigDecimal[] growth = group.getRevenueGrowthPercents();
+            for (int p = 0; p < periods.size(); p++) {
+                writeText(writer, group.getGroupKey());
+                writer.write(',');
+                writer.write(Integer.toString(p + 1));
+                writer.write(',');
+                writer.write(periods.get(p).getStartDate().toString());
+                writer.write(',');
+                writer.write(periods.get(p).getEndDate().toString());
+                writer.write(',');
+                writer.write(Long.toString(group.getRecordCounts()[p]));
+                writer.write(',');
+                writer.write(Long.toString(group.getTotalQuantities()[p]));
+                writer.write(',');
+                writeAmount(writer, group.getTotalRevenues()[p]);
+                writer.write(',');
+                writeAmount(writer, p > 0 ? changes[p - 1] : null);
+                writer.write(',');
+                writeAmount(writer, p > 0 ? growth[p - 1] : null);
+                writer.write("\r\n");
+            }
+        }
+        writer.flush();
+        complete(encoded);
+    }
+    
+    // Hooks for compressed variants; the caller's stream is left open for ReportStore to close
+    protected OutputStream encode(OutputStream out) throws IOException {
+        return out;
+    }
+    
+    protected void complete(OutputStream encoded) throws IOException {
+        encoded.flush();
+    }
+    
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    private static void writeAmount(Writer writer, BigDecimal amount) throws IOException {
+        if (amount != null) {
+            writer.write(amount.toPlainString());
+        }
+    }
+}
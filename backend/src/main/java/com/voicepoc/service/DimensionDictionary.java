@@ -0,0 +1,173 @@
+package com.voicepoc.service;
+
+import com.voicepoc.event.DirtyDateRanges;
+import com.voicepoc.event.SalesDataChangedEvent;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.parser.DimensionIndex;
+import com.voicepoc.parser.IntentParser;
+import com.voicepoc.parser.KeywordType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Distinct category, region, product and customer values from sales_data, kept in the parser's
+// DimensionIndex so voice commands can filter on them without a lookup per request
+@Service
+public class DimensionDictionary {
+    
+    private static final Logger log = LoggerFactory.getLogger(DimensionDictionary.class);
+    
+    private static final Map<KeywordType, String> COLUMNS = new EnumMap<>(Map.of(
+        KeywordType.CATEGORY, "category",
+        KeywordType.REGION, "region",
+        KeywordType.PRODUCT, "product_name",
+        KeywordType.CUSTOMER, "customer_name"));
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private IntentParser intentParser;
+    
+    @Value("${voice.dimensions.enabled:true}")
+    private volatile boolean enabled = true;
+    
+    // Per dimension; values past the limit are not recognised in commands
+    @Value("${voice.dimensions.max-values:100000}")
+    private int maxValues = 100000;
+    
+    // Day ranges that may contain values the index has not seen yet
+    private final DirtyDateRanges dirtyRanges = new DirtyDateRanges();
+    
+    private final Object refreshLock = new Object();
+    
+    // Guarded by refreshLock
+    private final Map<KeywordType, Set<String>> values = new EnumMap<>(KeywordType.class);
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesDataChanged(SalesDataChangedEvent event) {
+        if (enabled) {
+            dirtyRanges.add(event.getFromDate(), event.getToDate());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            reload();
+        }
+    }
+    
+    // Incremental refreshes only ever add values, so deleted ones are dropped by a periodic full read
+    @Scheduled(fixedDelayString = "${voice.dimensions.reload-interval-ms:3600000}",
+               initialDelayString = "${voice.dimensions.reload-interval-ms:3600000}")
+    public void scheduledReload() {
+        if (enabled) {
+            reload();
+        }
+    }
+    
+    public void reload() {
+        synchronized (refreshLock) {
+            // Anything changed before this point is covered by the full read
+            dirtyRanges.clear();
+            try {
+                long started = System.nanoTime();
+                Map<KeywordType, Set<String>> loaded = new EnumMap<>(KeywordType.class);
+                COLUMNS.forEach((type, column) -> {
+                    Set<String> typeValues = new HashSet<>();
+                    readDistinct("SELECT DISTINCT " + column + " FROM sales_data WHERE " + column + " IS NOT NULL",
+                        typeValues);
+                    loaded.put(type, typeValues);
+                });
+                values.clear();
+                values.putAll(loaded);
+                publish();
+                log.info("Dimension dictionary loaded {} values in {} ms", total(),
+                    (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                // Commands still resolve the baseline categories and regions built into IntentParser
+                log.warn("Dimension dictionary unavailable, disabling it: {}", e.getMessage());
+                enabled = false;
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${voice.dimensions.refresh-interval-ms:5000}",
+               initialDelayString = "${voice.dimensions.refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+    
+    // Reads distinct values for the dirty day ranges only and republishes the index if any are new
+    public void refresh() {
+        synchronized (refreshLock) {
+            List<DateRange> ranges = dirtyRanges.drain();
+            try {
+                int before = total();
+                for (int i = 0; i < ranges.size(); i++) {
+                    DateRange range = ranges.get(i);
+                    try {
+                        for (Map.Entry<KeywordType, String> entry : COLUMNS.entrySet()) {
+                            String column = entry.getValue();
+                            readDistinct("SELECT DISTINCT " + column + " FROM sales_data WHERE sales_date BETWEEN ? AND ? AND "
+                                + column + " IS NOT NULL", values.computeIfAbsent(entry.getKey(), k -> new HashSet<>()),
+                                Date.valueOf(range.getStartDate()), Date.valueOf(range.getEndDate()));
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("Dimension dictionary refresh {} failed: {}", range, e.getMessage());
+                        dirtyRanges.addAll(ranges.subList(i, ranges.size()));
+                        break;
+                    }
+                }
+                if (total() != before) {
+                    publish();
+                    log.debug("Dimension dictionary grew to {} values", total());
+                }
+            } finally {
+                dirtyRanges.finish();
+            }
+        }
+    }
+    
+    private void readDistinct(String sql, Set<String> into, Object... args) {
+        jdbcTemplate.query(sql, rs -> {
+            if (into.size() < maxValues) {
+                into.add(rs.getString(1));
+            }
+        }, args);
+    }
+    
+    // The index is immutable, so parses in flight keep the one they started with
+    private void publish() {
+        DimensionIndex.Builder builder = DimensionIndex.builder().reserve(intentParser.getVocabularyWords());
+        values.forEach(builder::addAll);
+        intentParser.setDimensions(builder.build());
+    }
+    
+    private int total() {
+        return values.values().stream().mapToInt(Set::size).sum();
+    }
+    
+    public int getValueCount() {
+        synchronized (refreshLock) {
+            return total();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.voicepoc.service;
+
+import com.voicepoc.model.ReportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Same CSV, gzip-compressed on the fly; at level 1 a sales export shrinks by roughly 70%
+@Component
+public class GzipCsvReportWriter extends CsvReportWriter {
+    
+    // 1 (fastest) to 9 (smallest); the default level costs several times the CPU of level 1 for a few percent
+    @Value("${report.csv.gzip-level:1}")
+    private int compressionLevel = 1;
+    
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.CSV_GZIP;
+    }
+    
+    @Override
+    protected OutputStream encode(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, 64 * 1024) {
+            {
+                def.setLevel(compressionLevel >= Deflater.BEST_SPEED && compressionLevel <= Deflater.BEST_COMPRESSION
+                    ? compressionLevel : Deflater.DEFAULT_COMPRESSION);
+            }
+        };
+    }
+    
+    @Override
+    protected void complete(OutputStream encoded) throws IOException {
+        // Writes the trailer without closing the file stream underneath
+        ((GZIPOutputStream) encoded).finish();
+        super.complete(encoded);
+    }
+}
@@ -0,0 +1,214 @@
+package com.voicepoc.service;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.parser.DateRange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Printable summary tables; detail rows are always aggregated first since a PDF of a million rows helps no one
+@Component
+public class PdfReportWriter implements SalesReportWriter {
+    
+    @Value("${report.pivot.top-n:20}")
+    private int pivotTopN = 20;
+    
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.PDF;
+    }
+    
+    @Override
+    public void writeDetail(Stream<SalesRow> rows, QueryKey key, OutputStream out) {
+        SalesPivot pivot = new SalesPivot();
+        rows.forEach(pivot);
+        
+        try (Document document = openDocument(out)) {
+            document.add(new Paragraph("Sales Summary").setBold().setFontSize(16));
+            SalesPivot.Totals total = pivot.getTotal();
+            Table overview = new Table(UnitValue.createPercentArray(new float[] {1, 2})).useAllAvailableWidth();
+            addRow(overview, "Period", key.getStartDate() + " to " + key.getEndDate());
+            addRow(overview, "Category", key.getCategory() != null ? key.getCategory() : "All");
+            addRow(overview, "Region", key.getRegion() != null ? key.getRegion() : "All");
+            addRow(overview, "Product", key.getProductName() != null ? key.getProductName() : "All");
+            addRow(overview, "Customer", key.getCustomerName() != null ? key.getCustomerName() : "All");
+            addRow(overview, "Records", Long.toString(total.getRecords()));
+            addRow(overview, "Quantity", Long.toString(total.getQuantity()));
+            addRow(overview, "Total Amount", money(total.getRevenueCents()));
+            addRow(overview, "Average Sale", total.getRecords() == 0 ? money(0)
+                : money(Math.round((double) total.getRevenueCents() / total.getRecords())));
+            document.add(overview);
+            
+            addTotals(document, "By Category", "Category", pivot.byCategory(), total);
+            addTotals(document, "By Region", "Region", pivot.byRegion(), total);
+            addMonthPivot(document, pivot);
+            addTotals(document, "Top Products", "Product", pivot.topProducts(pivotTopN), total);
+            addTotals(document, "Top Customers", "Customer", pivot.topCustomers(pivotTopN), total);
+        }
+    }
+    
+    @Override
+    public void writeSummary(List<SalesSummary> summary, QueryKey key, OutputStream out) {
+        try (Document document = openDocument(out)) {
+            String label = key.getGroupBy().getLabel();
+            document.add(new Paragraph("Sales by " + label).setBold().setFontSize(16));
+            document.add(new Paragraph(key.getStartDate() + " to " + key.getEndDate()));
+            
+            Table table = new Table(UnitValue.createPercentArray(new float[] {3, 1, 1, 2})).useAllAvailableWidth();
+            addHeader(table, label, "Records", "Quantity", "Total Amount");
+            long records = 0;
+            long quantity = 0;
+            BigDecimal revenue = BigDecimal.ZERO;
+            for (SalesSummary group : summary) {
+                table.addCell(text(group.getGroupKey()));
+                table.addCell(number(Long.toString(group.getRecordCount())));
+                table.addCell(number(Long.toString(group.getTotalQuantity())));
+                table.addCell(number(money(group.getTotalRevenue())));
+                records += group.getRecordCount();
+                quantity += group.getTotalQuantity();
+                revenue = revenue.add(group.getTotalRevenue());
+            }
+            table.addCell(text("TOTAL").setBold());
+            table.addCell(number(Long.toString(records)).setBold());
+            table.addCell(number(Long.toString(quantity)).setBold());
+            table.addCell(number(money(revenue)).setBold());
+            document.add(table);
+        }
+    }
+    
+    // One revenue column per period, then the change and growth of the first period against each later one
+    @Override
+    public void writeComparison(List<SalesComparison> comparison, QueryKey key, OutputStream out) {
+        List<DateRange> periods = key.getPeriods();
+        try (Document document = openDocument(out)) {
+            String label = key.getGroupBy() != null ? key.getGroupBy().getLabel() : "Group";
+            document.add(new Paragraph("Sales Comparison").setBold().setFontSize(16));
+            for (int p = 0; p < periods.size(); p++) {
+                document.add(new Paragraph("Period " + (p + 1) + ": " + periods.get(p).getStartDate() + " to "
+                    + periods.get(p).getEndDate()));
+            }
+            
+            int columns = 1 + periods.size() + 2 * (periods.size() - 1);
+            Table table = new Table(UnitValue.createPercentArray(columns)).useAllAvailableWidth().setFontSize(9);
+            table.addHeaderCell(header(label));
+            for (int p = 0; p < periods.size(); p++) {
+                table.addHeaderCell(header("Period " + (p + 1)));
+            }
+            for (int p = 1; p < periods.size(); p++) {
+                table.addHeaderCell(header("Change vs " + (p + 1)));
+                table.addHeaderCell(header("Growth vs " + (p + 1)));
+            }
+            for (SalesComparison group : comparison) {
+                table.addCell(text(group.getGroupKey()));
+                for (BigDecimal revenue : group.getTotalRevenues()) {
+                    table.addCell(number(money(revenue)));
+                }
+                BigDecimal[] changes = group.getRevenueChanges();
+                BigDecimal[] growth = group.getRevenueGrowthPercents();
+                for (int i = 0; i < changes.length; i++) {
+                    table.addCell(number(money(changes[i])));
+                    table.addCell(number(growth[i] != null ? growth[i].toPlainString() + "%" : "n/a"));
+                }
+            }
+            document.add(table);
+        }
+    }
+    
+    private Document openDocument(OutputStream out) {
+        PdfWriter writer = new PdfWriter(out);
+        // ReportStore owns the file stream
+        writer.setCloseStream(false);
+        return new Document(new PdfDocument(writer), PageSize.A4);
+    }
+    
+    private void addTotals(Document document, String title, String label,
+                           List<Map.Entry<String, SalesPivot.Totals>> groups, SalesPivot.Totals total) {
+        document.add(new Paragraph(title).setBold().setFontSize(13).setMarginTop(14));
+        Table table = new Table(UnitValue.createPercentArray(new float[] {3, 1, 1, 2, 1})).useAllAvailableWidth();
+        addHeader(table, label, "Records", "Quantity", "Total Amount", "Share");
+        for (Map.Entry<String, SalesPivot.Totals> group : groups) {
+            SalesPivot.Totals totals = group.getValue();
+            table.addCell(text(group.getKey()));
+            table.addCell(number(Long.toString(totals.getRecords())));
+            table.addCell(number(Long.toString(totals.getQuantity())));
+            table.addCell(number(money(totals.getRevenueCents())));
+            table.addCell(number(total.getRevenueCents() == 0 ? "0.0%" : String.format(Locale.ROOT, "%.1f%%",
+                100.0 * totals.getRevenueCents() / total.getRevenueCents())));
+        }
+        document.add(table);
+    }
+    
+    private void addMonthPivot(Document document, SalesPivot pivot) {
+        List<String> categories = pivot.categories();
+        document.add(new Paragraph("Month by Category").setBold().setFontSize(13).setMarginTop(14));
+        Table table = new Table(UnitValue.createPercentArray(categories.size() + 2)).useAllAvailableWidth().setFontSize(8);
+        table.addHeaderCell(header("Month"));
+        categories.forEach(category -> table.addHeaderCell(header(category)));
+        table.addHeaderCell(header("Total"));
+        for (String month : pivot.months()) {
+            table.addCell(text(month));
+            long monthCents = 0;
+            for (String category : categories) {
+                long cents = pivot.monthRevenueCents(month, category);
+                monthCents += cents;
+                table.addCell(number(money(cents)));
+            }
+            table.addCell(number(money(monthCents)));
+        }
+        document.add(table);
+    }
+    
+    private static void addRow(Table table, String label, String value) {
+        table.addCell(header(label));
+        table.addCell(text(value));
+    }
+    
+    private static void addHeader(Table table, String... headers) {
+        for (String header : headers) {
+            table.addHeaderCell(header(header));
+        }
+    }
+    
+    private static Cell header(String value) {
+        return new Cell().add(new Paragraph(value != null ? value : "")).setBold()
+            .setBackgroundColor(ColorConstants.LIGHT_GRAY);
+    }
+    
+    private static Cell text(String value) {
+        return new Cell().add(new Paragraph(value != null ? value : ""));
+    }
+    
+    private static Cell number(String value) {
+        return text(value).setTextAlignment(TextAlignment.RIGHT);
+    }
+    
+    private static String money(long cents) {
+        return money(BigDecimal.valueOf(cents, 2));
+    }
+    
+    // DecimalFormat is not thread-safe, so one is built per call
+    private static String money(BigDecimal amount) {
+        return new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ROOT)).format(amount);
+    }
+}
@@ -0,0 +1,188 @@
+package com.voicepoc.service;
+
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.model.ReportMode;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+// Normalized form of a voice query; two commands worded differently but asking for the same data share a key
+public final class QueryKey {
+    
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String category;
+    private final String region;
+    private final String productName;
+    private final String customerName;
+    private final SalesDimension groupBy;
+    // Grouped queries always produce a summary workbook, so their mode is fixed at DETAIL
+    private final ReportMode reportMode;
+    private final ReportFormat exportFormat;
+    // Set for comparison queries, in the order spoken; the start and end dates then span all of them
+    private final List<DateRange> periods;
+    // Set for "how many customers" questions, which count distinct values instead of listing rows
+    private final SalesDimension distinctOf;
+    // Positive for "top 5 products" questions, which keep only the leading groups of groupBy
+    private final int topN;
+    // The command accepted an estimate ("roughly", "approximately")
+    private final boolean approximate;
+    
+    public QueryKey(LocalDate startDate, LocalDate endDate, String category, String region, SalesDimension groupBy) {
+        this(startDate, endDate, category, region, groupBy, ReportMode.DETAIL);
+    }
+    
+    public QueryKey(LocalDate startDate, LocalDate endDate, String category, String region, SalesDimension groupBy,
+                    ReportMode reportMode) {
+        this(startDate, endDate, category, region, groupBy, reportMode, ReportFormat.XLSX);
+    }
+    
+    public QueryKey(LocalDate startDate, LocalDate endDate, String category, String region, SalesDimension groupBy,
+                    ReportMode reportMode, ReportFormat exportFormat) {
+        this(startDate, endDate, category, region, null, null, groupBy, reportMode, exportFormat);
+    }
+    
+    // The mode is normalised to what the format can lay out, so equivalent requests share a key
+    public QueryKey(LocalDate startDate, LocalDate endDate, String category, String region, String productName,
+                    String customerName, SalesDimension groupBy, ReportMode reportMode, ReportFormat exportFormat) {
+        this(startDate, endDate, category, region, productName, customerName, groupBy, reportMode, exportFormat, null,
+            null, 0, false);
+    }
+    
+    private QueryKey(LocalDate startDate, LocalDate endDate, String category, String region, String productName,
+                     String customerName, SalesDimension groupBy, ReportMode reportMode, ReportFormat exportFormat,
+                     List<DateRange> periods, SalesDimension distinctOf, int topN, boolean approximate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.category = category;
+        this.region = region;
+        this.productName = productName;
+        this.customerName = customerName;
+        this.groupBy = groupBy;
+        this.reportMode = groupBy != null ? ReportMode.DETAIL : exportFormat.layoutFor(reportMode);
+        this.exportFormat = exportFormat;
+        this.periods = periods != null ? List.copyOf(periods) : null;
+        this.distinctOf = distinctOf;
+        this.topN = topN;
+        this.approximate = approximate;
+    }
+    
+    // The same filters compared across periods; the covering span keeps cache invalidation and report names right
+    public QueryKey comparing(List<DateRange> periods) {
+        LocalDate start = periods.get(0).getStartDate();
+        LocalDate end = periods.get(0).getEndDate();
+        for (DateRange period : periods) {
+            start = period.getStartDate().isBefore(start) ? period.getStartDate() : start;
+            end = period.getEndDate().isAfter(end) ? period.getEndDate() : end;
+        }
+        return new QueryKey(start, end, category, region, productName, customerName, groupBy, reportMode,
+            exportFormat, periods, distinctOf, topN, approximate);
+    }
+    
+    // How many distinct customers or products match the filters
+    public QueryKey countingDistinct(SalesDimension distinctOf, boolean approximate) {
+        return new QueryKey(startDate, endDate, category, region, productName, customerName, null, reportMode,
+            exportFormat, periods, distinctOf, 0, approximate);
+    }
+    
+    // The n groups of topOf with the most revenue
+    public QueryKey ranking(SalesDimension topOf, int n, boolean approximate) {
+        return new QueryKey(startDate, endDate, category, region, productName, customerName, topOf, reportMode,
+            exportFormat, periods, null, n, approximate);
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public SalesDimension getGroupBy() {
+        return groupBy;
+    }
+    
+    public ReportMode getReportMode() {
+        return reportMode;
+    }
+    
+    public ReportFormat getExportFormat() {
+        return exportFormat;
+    }
+    
+    public List<DateRange> getPeriods() {
+        return periods;
+    }
+    
+    public boolean isComparison() {
+        return periods != null;
+    }
+    
+    public SalesDimension getDistinctOf() {
+        return distinctOf;
+    }
+    
+    public int getTopN() {
+        return topN;
+    }
+    
+    public boolean isApproximate() {
+        return approximate;
+    }
+    
+    // Distinct-count and top-N questions, which may be answered from sketches
+    public boolean isQuestion() {
+        return distinctOf != null || topN > 0;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryKey)) {
+            return false;
+        }
+        QueryKey other = (QueryKey) o;
+        return startDate.equals(other.startDate) && endDate.equals(other.endDate)
+            && Objects.equals(category, other.category) && Objects.equals(region, other.region)
+            && Objects.equals(productName, other.productName) && Objects.equals(customerName, other.customerName)
+            && groupBy == other.groupBy && reportMode == other.reportMode
+            && exportFormat == other.exportFormat && Objects.equals(periods, other.periods)
+            && distinctOf == other.distinctOf && topN == other.topN && approximate == other.approximate;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(startDate, endDate, category, region, productName, customerName, groupBy, reportMode,
+            exportFormat, periods, distinctOf, topN, approximate);
+    }
+    
+    @Override
+    public String toString() {
+        return startDate + ".." + endDate + "|" + category + "|" + region + "|" + productName + "|" + customerName
+            + "|" + groupBy + "|" + reportMode + "|" + exportFormat + (periods != null ? "|" + periods : "")
+            + (distinctOf != null ? "|distinct " + distinctOf : "") + (topN > 0 ? "|top " + topN : "")
+            + (approximate ? "|approximate" : "");
+    }
+}
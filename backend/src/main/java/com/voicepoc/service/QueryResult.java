@@ -0,0 +1,89 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesEstimate;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Everything a voice query produces apart from the echo of the command itself
+public class QueryResult {
+    
+    // At most voice.response.max-rows leading rows; recordCount and totalAmount cover every matching row
+    private final List<SalesRow> salesData;
+    private final List<SalesSummary> summary;
+    private final long recordCount;
+    // Null for distinct-count questions and sketch answers, which keep no revenue total
+    private final BigDecimal totalAmount;
+    private final String reportUrl;
+    // Only for comparison queries, which leave salesData and summary null
+    private final List<SalesComparison> comparison;
+    // Only for distinct-count and top-N questions; approximate when they came from the sketches
+    private final List<SalesEstimate> estimates;
+    private final boolean approximate;
+    
+    public QueryResult(List<SalesRow> salesData, List<SalesSummary> summary, long recordCount, BigDecimal totalAmount,
+                       String reportUrl) {
+        this(salesData, summary, recordCount, totalAmount, reportUrl, null);
+    }
+    
+    public QueryResult(List<SalesRow> salesData, List<SalesSummary> summary, long recordCount, BigDecimal totalAmount,
+                       String reportUrl, List<SalesComparison> comparison) {
+        this(salesData, summary, recordCount, totalAmount, reportUrl, comparison, null, false);
+    }
+    
+    public QueryResult(List<SalesRow> salesData, List<SalesSummary> summary, long recordCount, BigDecimal totalAmount,
+                       String reportUrl, List<SalesComparison> comparison, List<SalesEstimate> estimates,
+                       boolean approximate) {
+        this.salesData = salesData;
+        this.summary = summary;
+        this.recordCount = recordCount;
+        this.totalAmount = totalAmount;
+        this.reportUrl = reportUrl;
+        this.comparison = comparison;
+        this.estimates = estimates;
+        this.approximate = approximate;
+    }
+    
+    public List<SalesRow> getSalesData() {
+        return salesData;
+    }
+    
+    public List<SalesSummary> getSummary() {
+        return summary;
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public String getReportUrl() {
+        return reportUrl;
+    }
+    
+    public List<SalesComparison> getComparison() {
+        return comparison;
+    }
+    
+    public List<SalesEstimate> getEstimates() {
+        return estimates;
+    }
+    
+    public boolean isApproximate() {
+        return approximate;
+    }
+    
+    public static BigDecimal totalRevenue(List<SalesSummary> groups) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (SalesSummary group : groups) {
+            total = total.add(group.getTotalRevenue());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,122 @@
+package com.voicepoc.service;
+
+import com.voicepoc.event.SalesDataChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache of query results keyed by normalized intent, with TTL expiry and date-range invalidation
+@Component
+public class QueryResultCache {
+    
+    @Value("${voice.cache.max-entries:500}")
+    private int maxEntries = 500;
+    
+    @Value("${voice.cache.ttl-seconds:600}")
+    private long ttlSeconds = 600;
+    
+    private final LinkedHashMap<QueryKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QueryKey, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    
+    // Bumped on every invalidation so results computed from older data are not stored
+    private long generation;
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public synchronized QueryResult get(QueryKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAt > ttlSeconds * 1_000_000_000L) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.result;
+    }
+    
+    // Callers read the generation before querying and pass it back, so a concurrent invalidation wins
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+    
+    public synchronized void put(QueryKey key, QueryResult result, long expectedGeneration) {
+        if (expectedGeneration != generation || maxEntries <= 0) {
+            return;
+        }
+        entries.put(key, new Entry(result, System.nanoTime()));
+    }
+    
+    public synchronized void remove(QueryKey key) {
+        entries.remove(key);
+    }
+    
+    // Drops every cached result whose date range contains one of the changed rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSalesDataChanged(SalesDataChangedEvent event) {
+        generation++;
+        Iterator<QueryKey> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            QueryKey key = keys.next();
+            if (event.overlaps(key.getStartDate(), key.getEndDate())) {
+                keys.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+    
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    public long getEvictions() {
+        return evictions.get();
+    }
+    
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+    
+    private static class Entry {
+        final QueryResult result;
+        final long storedAt;
+        
+        Entry(QueryResult result, long storedAt) {
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -1,98 +1,80 @@
 package com.voicepoc.service;
 
-import com.voicepoc.model.SalesData;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.ReportFormat;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+// Names and stores report files; the content comes from the SalesReportWriter for the key's export format
 @Service
 public class ReportGenerationService {
     
-    private static final String REPORT_DIR = "reports/";
+    @Autowired
+    private ReportStore reportStore;
     
-    public String generateReport(List<SalesData> salesData, LocalDate startDate, LocalDate endDate) {
-        try {
-            String fileName = String.format("sales_report_%s_to_%s.xlsx", 
-                startDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
-                endDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-            
-            String filePath = REPORT_DIR + fileName;
-            
-            // Ensure directory exists
-            java.io.File directory = new java.io.File(REPORT_DIR);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            // Create Excel workbook
-            Workbook workbook = new XSSFWorkbook();
-            Sheet sheet = workbook.createSheet("Sales Report");
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"ID", "Product Name", "Category", "Sales Date", "Quantity", "Unit Price", "Total Amount", "Customer", "Region"};
-            
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // Fill data rows
-            int rowNum = 1;
-            BigDecimal totalSales = BigDecimal.ZERO;
-            
-            for (SalesData data : salesData) {
-                Row row = sheet.createRow(rowNum++);
-                
-                row.createCell(0).setCellValue(data.getId());
-                row.createCell(1).setCellValue(data.getProductName());
-                row.createCell(2).setCellValue(data.getCategory());
-                row.createCell(3).setCellValue(data.getSalesDate().toString());
-                row.createCell(4).setCellValue(data.getQuantity());
-                row.createCell(5).setCellValue(data.getUnitPrice().doubleValue());
-                row.createCell(6).setCellValue(data.getTotalAmount().doubleValue());
-                row.createCell(7).setCellValue(data.getCustomerName());
-                row.createCell(8).setCellValue(data.getRegion());
-                
-                totalSales = totalSales.add(data.getTotalAmount());
-            }
-            
-            // Add summary row
-            Row summaryRow = sheet.createRow(rowNum + 1);
-            summaryRow.createCell(0).setCellValue("SUMMARY");
-            summaryRow.createCell(5).setCellValue("Total Sales:");
-            summaryRow.createCell(6).setCellValue(totalSales.doubleValue());
-            
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+    @Autowired
+    private List<SalesReportWriter> writers;
+    
+    private final Map<ReportFormat, SalesReportWriter> writersByFormat = new EnumMap<>(ReportFormat.class);
+    
+    @PostConstruct
+    public void init() {
+        for (SalesReportWriter writer : writers) {
+            if (writersByFormat.put(writer.getFormat(), writer) != null) {
+                throw new IllegalStateException("More than one report writer for " + writer.getFormat());
             }
-            
-            // Write to file
-            FileOutputStream fileOut = new FileOutputStream(filePath);
-            workbook.write(fileOut);
-            workbook.close();
-            fileOut.close();
-            
-            return filePath;
-            
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating report: " + e.getMessage(), e);
         }
     }
+    
+    public String generateReport(List<SalesRow> salesData, QueryKey key) {
+        return generateReport(salesData.stream(), key);
+    }
+    
+    public String generateReport(Stream<SalesRow> salesData, QueryKey key) {
+        SalesReportWriter writer = writerFor(key);
+        String prefix = switch (key.getReportMode()) {
+            case DETAIL -> "sales_report";
+            case SUMMARY -> "sales_pivot";
+            case FULL -> "sales_pivot_detail";
+        };
+        String fileName = reportStore.fileNameFor(prefix, "detail|" + key, key.getStartDate(), key.getEndDate(),
+            writer.getFormat().getExtension());
+        
+        // Closing the stream releases the underlying cursor when rows come straight from the repository
+        try (Stream<SalesRow> rows = salesData) {
+            return reportStore.store(fileName, out -> writer.writeDetail(rows, key, out));
+        }
+    }
+    
+    public String generateSummaryReport(List<SalesSummary> summary, QueryKey key) {
+        SalesReportWriter writer = writerFor(key);
+        String dimension = key.getGroupBy().name().toLowerCase();
+        String prefix = key.getTopN() > 0 ? "sales_top_" + key.getTopN() + "_" + dimension : "sales_summary_by_" + dimension;
+        String fileName = reportStore.fileNameFor(prefix, "summary|" + key, key.getStartDate(), key.getEndDate(),
+            writer.getFormat().getExtension());
+        return reportStore.store(fileName, out -> writer.writeSummary(summary, key, out));
+    }
+    
+    public String generateComparisonReport(List<SalesComparison> comparison, QueryKey key) {
+        SalesReportWriter writer = writerFor(key);
+        String fileName = reportStore.fileNameFor("sales_comparison", "comparison|" + key, key.getStartDate(),
+            key.getEndDate(), writer.getFormat().getExtension());
+        return reportStore.store(fileName, out -> writer.writeComparison(comparison, key, out));
+    }
+    
+    private SalesReportWriter writerFor(QueryKey key) {
+        SalesReportWriter writer = writersByFormat.get(key.getExportFormat());
+        if (writer == null) {
+            throw new IllegalArgumentException("No report writer for format " + key.getExportFormat());
+        }
+        return writer;
+    }
 }
@@ -0,0 +1,177 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.ReportJob;
+import com.voicepoc.dto.VoiceCommandResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs report generation off the request thread on a bounded pool; a full queue is rejected instead of growing
+@Service
+public class ReportJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+    
+    @Value("${report.jobs.threads:2}")
+    private int threads = 2;
+    
+    @Value("${report.jobs.queue-capacity:20}")
+    private int queueCapacity = 20;
+    
+    @Value("${report.jobs.retention-minutes:30}")
+    private long retentionMinutes = 30;
+    
+    @Value("${report.jobs.sse-timeout-ms:300000}")
+    private long sseTimeoutMs = 300000;
+    
+    @Autowired
+    private Environment environment;
+    
+    private ThreadPoolExecutor executor;
+    
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    // With spring.threads.virtual.enabled on Java 21+ jobs run on virtual threads, so a job blocked on JDBC or
+    // file I/O does not hold a carrier thread; the pool size still caps how many jobs run at once
+    private ThreadFactory threadFactory() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Report jobs run on virtual threads");
+            return new VirtualThreadTaskExecutor("report-job-").getVirtualThreadFactory();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    public ReportJob submit(Supplier<VoiceCommandResponse> work) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString());
+        jobs.put(job.getId(), job);
+        
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new ReportQueueFullException("Report queue is full (" + queueCapacity + " pending), please retry shortly");
+        }
+        return job;
+    }
+    
+    public ReportJob getJob(String id) {
+        return jobs.get(id);
+    }
+    
+    // Sends the current state straight away, then again when the job finishes
+    public SseEmitter subscribe(ReportJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        if (job.isDone()) {
+            // Nothing more will be published, so the terminal event is all there is to send
+            send(emitter, job);
+            emitter.complete();
+            return emitter;
+        }
+        
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        
+        send(emitter, job);
+        if (job.isDone()) {
+            // Finished while the subscription was being registered, so publish may have missed it; drop the
+            // list again if publish had already removed it and computeIfAbsent put it back
+            emitters.remove(emitter);
+            subscribers.computeIfPresent(job.getId(), (id, list) -> list.isEmpty() ? null : list);
+            send(emitter, job);
+            emitter.complete();
+        }
+        return emitter;
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+    
+    private void run(ReportJob job, Supplier<VoiceCommandResponse> work) {
+        job.markRunning();
+        publish(job, false);
+        try {
+            job.markCompleted(work.get());
+        } catch (Exception e) {
+            log.warn("Report job {} failed", job.getId(), e);
+            job.markFailed("Error processing voice command: " + e.getMessage());
+        }
+        publish(job, true);
+    }
+    
+    private void publish(ReportJob job, boolean last) {
+        List<SseEmitter> emitters = last ? subscribers.remove(job.getId()) : subscribers.get(job.getId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, job);
+            if (last) {
+                emitter.complete();
+            }
+        }
+    }
+    
+    private void send(SseEmitter emitter, ReportJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter is dropped on completion
+            emitter.completeWithError(e);
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.isDone() && job.getCompletedAt().isBefore(cutoff));
+    }
+}
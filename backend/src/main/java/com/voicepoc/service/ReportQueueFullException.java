@@ -0,0 +1,8 @@
+package com.voicepoc.service;
+
+public class ReportQueueFullException extends RuntimeException {
+    
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,356 @@
+package com.voicepoc.service;
+
+import com.voicepoc.event.SalesDataChangedEvent;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.repository.SalesDataRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Content-addressed report files: names carry the query's date range, a hash of the query and a hash of the data
+// version of that range, so identical requests share a file across restarts until a row in the range changes
+@Component
+public class ReportStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReportStore.class);
+    
+    private static final String TEMP_PREFIX = ".tmp-";
+    
+    // prefix_startDate-endDate_queryHash_versionHash.extension; group 1 is everything but the version
+    private static final Pattern NAME = Pattern.compile("(.+_(\\d{8})-(\\d{8})_[0-9a-f]{32})_([0-9a-f]{8})\\..+");
+    
+    private static final int MAX_VERSIONS = 10_000;
+    
+    @Value("${report.dir:reports}")
+    private String reportDir = "reports";
+    
+    @Value("${report.store.max-bytes:536870912}")
+    private long maxBytes = 536870912L;
+    
+    @Autowired
+    private VoiceCommandMetrics metrics;
+    
+    @Autowired
+    private SalesDataRepository salesDataRepository;
+    
+    private Path directory;
+    
+    // Data version of each date range a report was named for, read from sales_data and dropped when a change
+    // overlaps the range, like QueryResultCache's invalidation. Guarded by itself
+    private final Map<DateRange, String> versions = new HashMap<>();
+    private long versionGeneration;
+    
+    private final Map<String, StoredReport> reports = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(reportDir).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        cleanup();
+    }
+    
+    public String fileNameFor(String prefix, String queryDescriptor, LocalDate startDate, LocalDate endDate,
+                              String extension) {
+        return prefix + "_" + startDate.format(DateTimeFormatter.BASIC_ISO_DATE) + "-"
+            + endDate.format(DateTimeFormatter.BASIC_ISO_DATE) + "_" + hash(queryDescriptor, 16) + "_"
+            + hash(versionOf(new DateRange(startDate, endDate)), 4) + "." + extension;
+    }
+    
+    private String versionOf(DateRange range) {
+        long generation;
+        synchronized (versions) {
+            String version = versions.get(range);
+            if (version != null) {
+                return version;
+            }
+            generation = versionGeneration;
+        }
+        String version = salesDataRepository.dataVersion(range.getStartDate(), range.getEndDate());
+        synchronized (versions) {
+            // A change that committed while the version was read leaves it to be read again next time
+            if (versionGeneration == generation) {
+                if (versions.size() >= MAX_VERSIONS) {
+                    versions.clear();
+                }
+                versions.put(range, version);
+            }
+        }
+        return version;
+    }
+    
+    private static String hash(String value, int bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    // Returns the stored file if it already exists; otherwise writes it through a temp file and an atomic rename
+    public String store(String fileName, ReportWriter writer) {
+        Path target = directory.resolve(fileName);
+        if (Files.exists(target)) {
+            touch(fileName, target);
+            return reportUrl(fileName);
+        }
+        
+        long started = System.nanoTime();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, TEMP_PREFIX, fileName);
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            // A report larger than the whole store would evict everything and still not fit
+            long written = Files.size(temp);
+            if (written > maxBytes) {
+                throw new ReportTooLargeException(String.format(
+                    "The report would be %.1f MB, more than the %.1f MB report store; narrow the dates or filters",
+                    written / 1048576.0, maxBytes / 1048576.0));
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long size = Files.size(target);
+            track(fileName, size);
+            metrics.recordReportWrite(System.nanoTime() - started, size);
+            removeSuperseded(fileName);
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating report: " + e.getMessage(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Picked up by the next cleanup
+                }
+            }
+        }
+        
+        // The new report is the one the caller is waiting for, so it is never evicted to make room for itself
+        enforceQuota(fileName);
+        return reportUrl(fileName);
+    }
+    
+    public boolean exists(String reportUrl) {
+        return reportUrl != null && Files.exists(directory.resolve(Paths.get(reportUrl).getFileName()));
+    }
+    
+    // Maps a client-supplied file name to a stored report, or null if it is missing or would leave the report directory
+    public Path resolve(String fileName) {
+        if (fileName == null || fileName.isEmpty() || fileName.startsWith(TEMP_PREFIX)) {
+            return null;
+        }
+        Path file;
+        try {
+            file = directory.resolve(fileName).normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (!directory.equals(file.getParent()) || !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            return null;
+        }
+        touch(file.getFileName().toString(), file);
+        return file;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesDataChanged(SalesDataChangedEvent event) {
+        synchronized (versions) {
+            versionGeneration++;
+            versions.keySet().removeIf(range -> !range.getEndDate().isBefore(event.getFromDate())
+                && !range.getStartDate().isAfter(event.getToDate()));
+        }
+    }
+    
+    // Older versions of the same query can never be asked for again once a newer one is written
+    private void removeSuperseded(String fileName) {
+        Matcher written = NAME.matcher(fileName);
+        if (!written.matches()) {
+            return;
+        }
+        String stem = written.group(1) + "_";
+        for (String name : new ArrayList<>(reports.keySet())) {
+            if (name.startsWith(stem) && !name.equals(fileName) && NAME.matcher(name).matches()) {
+                remove(name);
+            }
+        }
+    }
+    
+    // Reports left from before a restart stay usable while their data is unchanged; the rest, and files named
+    // by older schemes, are unreachable and removed once the data they depend on can be read
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeUnreachable() {
+        int purged = 0;
+        for (String name : new ArrayList<>(reports.keySet())) {
+            Matcher matcher = NAME.matcher(name);
+            boolean reachable = false;
+            if (matcher.matches()) {
+                try {
+                    DateRange range = new DateRange(LocalDate.parse(matcher.group(2), DateTimeFormatter.BASIC_ISO_DATE),
+                        LocalDate.parse(matcher.group(3), DateTimeFormatter.BASIC_ISO_DATE));
+                    reachable = hash(versionOf(range), 4).equals(matcher.group(4));
+                } catch (DateTimeParseException e) {
+                    // Not one of ours
+                }
+            }
+            if (!reachable) {
+                remove(name);
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            log.info("Removed {} stored reports whose data has changed", purged);
+        }
+    }
+    
+    // Reconciles the in-memory index with the directory, removes abandoned temp files and enforces the quota
+    @Scheduled(fixedDelayString = "${report.store.cleanup-interval-ms:300000}",
+               initialDelayString = "${report.store.cleanup-interval-ms:300000}")
+    public void cleanup() {
+        long staleTempCutoff = System.currentTimeMillis() - 3_600_000L;
+        Map<String, StoredReport> onDisk = new ConcurrentHashMap<>();
+        
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                String name = file.getFileName().toString();
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (name.startsWith(TEMP_PREFIX)) {
+                    if (modified.toMillis() < staleTempCutoff) {
+                        Files.deleteIfExists(file);
+                    }
+                    continue;
+                }
+                StoredReport known = reports.get(name);
+                long lastAccess = known != null ? known.lastAccess : modified.toMillis();
+                onDisk.put(name, new StoredReport(Files.size(file), lastAccess));
+            }
+        } catch (IOException e) {
+            log.warn("Report directory scan failed: {}", e.getMessage());
+            return;
+        }
+        
+        reports.keySet().retainAll(onDisk.keySet());
+        reports.putAll(onDisk);
+        totalBytes.set(onDisk.values().stream().mapToLong(r -> r.size).sum());
+        enforceQuota(null);
+    }
+    
+    // Evicts least recently used reports until the store fits, sparing the named one
+    private synchronized void enforceQuota(String keep) {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<String, StoredReport>> byAge = new ArrayList<>(reports.entrySet());
+        byAge.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        
+        for (Map.Entry<String, StoredReport> entry : byAge) {
+            if (totalBytes.get() <= maxBytes) {
+                break;
+            }
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            if (remove(entry.getKey())) {
+                log.debug("Evicted report {} ({} bytes)", entry.getKey(), entry.getValue().size);
+            }
+        }
+    }
+    
+    private boolean remove(String fileName) {
+        try {
+            Files.deleteIfExists(directory.resolve(fileName));
+            StoredReport removed = reports.remove(fileName);
+            if (removed != null) {
+                totalBytes.addAndGet(-removed.size);
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not remove report {}: {}", fileName, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void track(String fileName, long size) {
+        StoredReport previous = reports.put(fileName, new StoredReport(size, System.currentTimeMillis()));
+        totalBytes.addAndGet(size - (previous != null ? previous.size : 0));
+    }
+    
+    private void touch(String fileName, Path file) {
+        StoredReport report = reports.get(fileName);
+        if (report != null) {
+            report.lastAccess = System.currentTimeMillis();
+        } else {
+            try {
+                track(fileName, Files.size(file));
+            } catch (IOException ignored) {
+                // Evicted concurrently; the caller still gets a consistent name
+            }
+        }
+    }
+    
+    private String reportUrl(String fileName) {
+        return reportDir + "/" + fileName;
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+    
+    private static class StoredReport {
+        final long size;
+        volatile long lastAccess;
+        
+        StoredReport(long size, long lastAccess) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
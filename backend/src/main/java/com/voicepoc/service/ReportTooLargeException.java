@@ -0,0 +1,8 @@
+package com.voicepoc.service;
+
+public class ReportTooLargeException extends RuntimeException {
+    
+    public ReportTooLargeException(String message) {
+        super(message);
+    }
+}
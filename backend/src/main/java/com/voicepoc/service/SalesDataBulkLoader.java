@@ -0,0 +1,436 @@
+package com.voicepoc.service;
+
+import com.voicepoc.event.SalesDataChangedEvent;
+import com.voicepoc.model.SalesData;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+// Inserts sales_data in bulk outside the persistence context: COPY on PostgreSQL, batched JDBC elsewhere
+@Service
+public class SalesDataBulkLoader {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesDataBulkLoader.class);
+    
+    private static final String COLUMNS =
+        "product_name, category, sales_date, quantity, unit_price, total_amount, customer_name, region, updated_at";
+    
+    private static final List<String> PRODUCTS = List.of(
+        "Laptop Pro 15", "Wireless Headphones", "Smartphone X", "Tablet Air", "Gaming Mouse",
+        "Mechanical Keyboard", "Monitor 4K", "Webcam HD", "Bluetooth Speaker", "Power Bank",
+        "T-Shirt Cotton", "Jeans Classic", "Sneakers Sport", "Hoodie Winter", "Jacket Leather",
+        "Dress Summer", "Shoes Formal", "Hat Baseball", "Sunglasses Aviator", "Watch Smart",
+        "Book Programming", "Novel Fiction", "Textbook Math", "Magazine Tech", "Comic Book",
+        "Dictionary English", "Biography Famous", "Cookbook Italian", "Travel Guide", "Poetry Collection",
+        "Sofa 3-Seater", "Dining Table Oak", "Bed King Size", "Wardrobe Modern", "Coffee Table",
+        "Bookshelf Tall", "Chair Office", "Desk Wooden", "Lamp Floor", "Mirror Wall",
+        "Basketball Official", "Tennis Racket", "Yoga Mat", "Running Shoes", "Gym Weights",
+        "Bicycle Mountain", "Swimming Goggles", "Football", "Baseball Bat", "Hockey Stick"
+    );
+    
+    private static final List<String> CATEGORIES = List.of("Electronics", "Clothing", "Books", "Furniture", "Sports");
+    
+    private static final List<String> CUSTOMERS = List.of(
+        "John Smith", "Emma Johnson", "Michael Brown", "Sarah Davis", "David Wilson",
+        "Lisa Anderson", "Robert Taylor", "Jennifer Thomas", "Christopher Jackson", "Amanda White",
+        "Matthew Harris", "Jessica Martin", "Daniel Thompson", "Ashley Garcia", "Andrew Martinez"
+    );
+    
+    private static final List<String> REGIONS = List.of("North", "South", "East", "West", "Central");
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${sales.load.batch-size:5000}")
+    private int batchSize = 5000;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    public SalesDataBulkLoader(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // The same seed and anchor date always produce the same rows
+    public long generate(int rows, long seed, LocalDate anchorDate) {
+        return load(sink -> {
+            Random random = new Random(seed);
+            for (int i = 0; i < rows; i++) {
+                String product = PRODUCTS.get(random.nextInt(PRODUCTS.size()));
+                String category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+                String customer = CUSTOMERS.get(random.nextInt(CUSTOMERS.size()));
+                String region = REGIONS.get(random.nextInt(REGIONS.size()));
+                
+                // Random date within the 12 months before the anchor date
+                LocalDate salesDate = anchorDate.minusDays(random.nextInt(365));
+                
+                int quantity = random.nextInt(10) + 1;
+                BigDecimal unitPrice = BigDecimal.valueOf(10 + random.nextDouble() * 990).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal totalAmount = unitPrice.multiply(BigDecimal.valueOf(quantity));
+                
+                sink.accept(new SalesData(product, category, salesDate, quantity, unitPrice, totalAmount, customer, region));
+            }
+        });
+    }
+    
+    // Expects a header row naming the sales_data columns; total_amount may be omitted and is then derived.
+    // Each file is recorded by the SHA-256 of its content, and a file already imported is skipped, so
+    // importing the same file again neither duplicates its rows nor touches any other stored row
+    public long importCsv(Path file) throws IOException {
+        String checksum = checksum(file);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Integer> columns = readHeader(reader);
+            if (columns == null) {
+                return 0;
+            }
+            return load(new ImportedFile(checksum, file.getFileName().toString()), sink -> {
+                try {
+                    String line;
+                    long lineNumber = 1;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        sink.accept(toSalesData(parseCsvLine(line), columns, lineNumber));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static String checksum(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    // Column positions by lower-case name, or null for an empty file
+    private static Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : new String[] {"product_name", "category", "sales_date", "quantity",
+                "unit_price", "customer_name", "region"}) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column " + required);
+            }
+        }
+        return columns;
+    }
+    
+    private long load(Consumer<Consumer<SalesData>> source) {
+        return load(null, source);
+    }
+    
+    // Runs in one transaction so a failed import leaves the table untouched. An imported file is recorded in
+    // the same transaction, and two imports of the same file at once fail on its primary key
+    private long load(ImportedFile imported, Consumer<Consumer<SalesData>> source) {
+        long started = System.nanoTime();
+        LoadStats stats = transactionTemplate.execute(status -> {
+            if (imported != null) {
+                List<Timestamp> previous = jdbcTemplate.queryForList(
+                    "SELECT imported_at FROM sales_imports WHERE checksum = ?", Timestamp.class, imported.checksum);
+                if (!previous.isEmpty()) {
+                    log.info("Skipping {}: the same file was already imported at {}", imported.fileName,
+                        previous.get(0));
+                    return null;
+                }
+            }
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try (RowSink sink = openSink(connection)) {
+                LoadStats loaded = new LoadStats();
+                source.accept(row -> {
+                    sink.accept(row);
+                    loaded.add(row.getSalesDate());
+                });
+                sink.finish();
+                if (imported != null) {
+                    jdbcTemplate.update("INSERT INTO sales_imports (checksum, file_name, row_count, imported_at) "
+                        + "VALUES (?, ?, ?, ?)", imported.checksum, imported.fileName, loaded.rows,
+                        Timestamp.valueOf(LocalDateTime.now()));
+                }
+                if (loaded.rows > 0) {
+                    // Listeners run after commit, like the per-row entity events
+                    eventPublisher.publishEvent(new SalesDataChangedEvent(loaded.minDate, loaded.maxDate, loaded.rows));
+                }
+                return loaded;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Bulk load failed: " + e.getMessage(), e);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        });
+        if (stats == null) {
+            return 0;
+        }
+        log.info("Loaded {} sales rows in {} ms", stats.rows, (System.nanoTime() - started) / 1_000_000);
+        return stats.rows;
+    }
+    
+    // Every row of one load shares its updated_at
+    private RowSink openSink(Connection connection) throws SQLException {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        if (connection.isWrapperFor(PGConnection.class)) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY sales_data (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+            return new CopySink(copyIn, loadedAt);
+        }
+        return new BatchSink(Timestamp.valueOf(loadedAt));
+    }
+    
+    private SalesData toSalesData(List<String> fields, Map<String, Integer> columns, long lineNumber) {
+        try {
+            int quantity = Integer.parseInt(field(fields, columns, "quantity"));
+            BigDecimal unitPrice = new BigDecimal(field(fields, columns, "unit_price"));
+            String total = columns.containsKey("total_amount") ? field(fields, columns, "total_amount") : "";
+            BigDecimal totalAmount = total.isEmpty() ? unitPrice.multiply(BigDecimal.valueOf(quantity)) : new BigDecimal(total);
+            return new SalesData(
+                field(fields, columns, "product_name"),
+                field(fields, columns, "category"),
+                LocalDate.parse(field(fields, columns, "sales_date")),
+                quantity, unitPrice, totalAmount,
+                field(fields, columns, "customer_name"),
+                field(fields, columns, "region")
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid CSV row at line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+    
+    // RFC 4180 fields on a single line: commas, quoted fields and doubled quotes
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+    
+    private interface RowSink extends AutoCloseable {
+        void accept(SalesData row);
+        
+        // Sends whatever is still buffered; called once after the last row
+        void finish();
+        
+        @Override
+        void close() throws SQLException;
+    }
+    
+    // Streams CSV straight into COPY; the server parses and inserts without per-row statements
+    private static class CopySink implements RowSink {
+        private static final int BUFFER_CHARS = 64 * 1024;
+        
+        private final CopyIn copyIn;
+        private final String updatedAt;
+        private final StringBuilder buffer = new StringBuilder(BUFFER_CHARS + 512);
+        
+        CopySink(CopyIn copyIn, LocalDateTime updatedAt) {
+            this.copyIn = copyIn;
+            this.updatedAt = updatedAt.toString();
+        }
+        
+        @Override
+        public void accept(SalesData row) {
+            appendCsv(row.getProductName()).append(',');
+            appendCsv(row.getCategory()).append(',');
+            buffer.append(row.getSalesDate()).append(',');
+            buffer.append(row.getQuantity()).append(',');
+            buffer.append(row.getUnitPrice().toPlainString()).append(',');
+            buffer.append(row.getTotalAmount().toPlainString()).append(',');
+            appendCsv(row.getCustomerName()).append(',');
+            appendCsv(row.getRegion()).append(',');
+            buffer.append(updatedAt).append('\n');
+            if (buffer.length() >= BUFFER_CHARS) {
+                write();
+            }
+        }
+        
+        @Override
+        public void finish() {
+            write();
+            try {
+                copyIn.endCopy();
+            } catch (SQLException e) {
+                throw new IllegalStateException("COPY failed: " + e.getMessage(), e);
+            }
+        }
+        
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        
+        private StringBuilder appendCsv(String value) {
+            if (value == null) {
+                return buffer;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return buffer.append(value);
+            }
+            return buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+        
+        private void write() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new IllegalStateException("COPY failed: " + e.getMessage(), e);
+            }
+        }
+    }
+    
+    // Portable fallback: multi-row JDBC batches, bypassing IDENTITY-driven per-entity inserts
+    private class BatchSink implements RowSink {
+        private final Timestamp updatedAt;
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+        
+        BatchSink(Timestamp updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+        
+        @Override
+        public void accept(SalesData row) {
+            batch.add(new Object[] {
+                row.getProductName(), row.getCategory(), Date.valueOf(row.getSalesDate()), row.getQuantity(),
+                row.getUnitPrice(), row.getTotalAmount(), row.getCustomerName(), row.getRegion(), updatedAt
+            });
+            if (batch.size() >= batchSize) {
+                finish();
+            }
+        }
+        
+        @Override
+        public void finish() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO sales_data (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+            batch.clear();
+        }
+        
+        @Override
+        public void close() {
+            batch.clear();
+        }
+    }
+    
+    private static class ImportedFile {
+        final String checksum;
+        final String fileName;
+        
+        ImportedFile(String checksum, String fileName) {
+            this.checksum = checksum;
+            this.fileName = fileName;
+        }
+    }
+    
+    private static class LoadStats {
+        long rows;
+        LocalDate minDate;
+        LocalDate maxDate;
+        
+        void add(LocalDate date) {
+            rows++;
+            if (minDate == null || date.isBefore(minDate)) {
+                minDate = date;
+            }
+            if (maxDate == null || date.isAfter(maxDate)) {
+                maxDate = date;
+            }
+        }
+    }
+}
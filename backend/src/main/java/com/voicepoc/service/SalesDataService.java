@@ -0,0 +1,107 @@
+package com.voicepoc.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.voicepoc.dto.SalesDataPage;
+import com.voicepoc.model.SalesData;
+import com.voicepoc.repository.SalesDataRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Bounded-memory access to sales_data: keyset pages for JSON clients, a row stream for NDJSON exports
+@Service
+public class SalesDataService {
+    
+    @Autowired
+    private SalesDataRepository salesDataRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${sales.api.default-page-size:500}")
+    private int defaultPageSize = 500;
+    
+    @Value("${sales.api.max-page-size:5000}")
+    private int maxPageSize = 5000;
+    
+    @Value("${sales.api.stream-fetch-size:1000}")
+    private int streamFetchSize = 1000;
+    
+    @Value("${sales.api.stream-flush-rows:1000}")
+    private int streamFlushRows = 1000;
+    
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public SalesDataService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    public SalesDataPage findPage(LocalDate startDate, LocalDate endDate, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf('_');
+            try {
+                afterDate = LocalDate.parse(cursor.substring(0, separator));
+                afterId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        
+        // One extra row tells us whether another page exists without a COUNT query
+        List<SalesData> rows = salesDataRepository.findPage(startDate, endDate, afterDate, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            SalesData last = rows.get(rows.size() - 1);
+            nextCursor = last.getSalesDate() + "_" + last.getId();
+        }
+        return new SalesDataPage(rows, hasMore, nextCursor);
+    }
+    
+    // Writes one JSON object per line; the cursor stays open for the whole export, so heap use does not grow with the row count
+    public void writeNdjson(LocalDate startDate, LocalDate endDate, OutputStream out) {
+        // Flushing is batched below instead of after every row
+        ObjectWriter writer = objectMapper.writerFor(SalesData.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<SalesData> rows = salesDataRepository.streamAll(startDate, endDate, streamFetchSize);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                
+                Iterator<SalesData> iterator = rows.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % streamFlushRows == 0) {
+                        generator.flush();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
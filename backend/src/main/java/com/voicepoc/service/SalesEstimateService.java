@@ -0,0 +1,106 @@
+package com.voicepoc.service;
+
+import com.voicepoc.analytics.HyperLogLog;
+import com.voicepoc.analytics.SalesSketchEngine;
+import com.voicepoc.analytics.SpaceSaving;
+import com.voicepoc.dto.SalesEstimate;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.repository.SalesDataFilter;
+import com.voicepoc.repository.SalesDataRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Answers "how many customers" and "top 5 products" questions. Commands that ask for an estimate, or that would
+// scan more than analytics.sketches.row-threshold rows, are answered from the sketches with error bounds;
+// everything else, and anything the sketches cannot answer, is counted exactly
+@Service
+public class SalesEstimateService {
+    
+    // Two standard errors either side of a HyperLogLog estimate
+    private static final double DISTINCT_CONFIDENCE = 0.95;
+    private static final double DISTINCT_ERRORS = 2.0;
+    
+    @Autowired
+    private SalesSketchEngine salesSketchEngine;
+    
+    @Autowired
+    private SalesDataRepository salesDataRepository;
+    
+    @Autowired
+    private VoiceCommandMetrics metrics;
+    
+    @Value("${analytics.sketches.row-threshold:1000000}")
+    private long rowThreshold = 1_000_000;
+    
+    public QueryResult countDistinct(QueryKey key, SalesDataFilter filter) {
+        Long rows = sketchRows(key, filter);
+        HyperLogLog sketch = rows != null ? salesSketchEngine.distinct(key.getDistinctOf(), filter) : null;
+        if (sketch != null) {
+            metrics.estimate("distinct", "sketch");
+            long estimate = Math.min(sketch.estimate(), rows);
+            double margin = Math.ceil(DISTINCT_ERRORS * sketch.relativeStandardError() * estimate);
+            // At least one value exists when any row matched, and never more values than rows
+            long lower = Math.max(rows > 0 ? 1 : 0, estimate - (long) margin);
+            long upper = Math.min(rows, estimate + (long) margin);
+            SalesEstimate answer = new SalesEstimate(null, BigDecimal.valueOf(estimate), BigDecimal.valueOf(lower),
+                BigDecimal.valueOf(upper), DISTINCT_CONFIDENCE);
+            return new QueryResult(null, null, rows, null, null, null, List.of(answer), true);
+        }
+        
+        metrics.estimate("distinct", "exact");
+        long[] counts = salesDataRepository.countDistinct(key.getDistinctOf(), filter);
+        return new QueryResult(null, null, counts[0], null, null, null,
+            List.of(SalesEstimate.exact(null, BigDecimal.valueOf(counts[1]))), false);
+    }
+    
+    // Top-N by revenue from the sketches, or null when the question should be answered from exact group totals
+    public QueryResult topFromSketches(QueryKey key, SalesDataFilter filter) {
+        if (key.getTopN() > salesSketchEngine.getTopCapacity()) {
+            return null;
+        }
+        Long rows = sketchRows(key, filter);
+        SpaceSaving summary = rows != null ? salesSketchEngine.topByRevenue(key.getGroupBy(), filter) : null;
+        if (summary == null) {
+            return null;
+        }
+        metrics.estimate("top", "sketch");
+        List<SalesEstimate> estimates = new ArrayList<>();
+        for (SpaceSaving.Counter counter : summary.top(key.getTopN())) {
+            // Weights are cents; each never undercounts and overcounts by at most its error
+            estimates.add(new SalesEstimate(counter.getItem(), BigDecimal.valueOf(counter.getWeight(), 2),
+                BigDecimal.valueOf(counter.getWeight() - counter.getError(), 2),
+                BigDecimal.valueOf(counter.getWeight(), 2), 1.0));
+        }
+        return new QueryResult(null, null, rows, null, null, null, estimates, true);
+    }
+    
+    // The n groups with the most revenue, for answering from exact group totals
+    public List<SalesSummary> topOf(List<SalesSummary> groups, int n) {
+        metrics.estimate("top", "exact");
+        List<SalesSummary> ranked = new ArrayList<>(groups);
+        ranked.sort(Comparator.comparing(SalesSummary::getTotalRevenue).reversed()
+            .thenComparing(SalesSummary::getGroupKey));
+        return ranked.size() > n ? new ArrayList<>(ranked.subList(0, n)) : ranked;
+    }
+    
+    public static List<SalesEstimate> exactEstimates(List<SalesSummary> groups) {
+        List<SalesEstimate> estimates = new ArrayList<>(groups.size());
+        for (SalesSummary group : groups) {
+            estimates.add(SalesEstimate.exact(group.getGroupKey(), group.getTotalRevenue()));
+        }
+        return estimates;
+    }
+    
+    // Matching rows when the sketches should answer, otherwise null. The sketches' own row counts are exact,
+    // so checking the threshold costs no scan
+    private Long sketchRows(QueryKey key, SalesDataFilter filter) {
+        Long rows = salesSketchEngine.matchingRows(filter);
+        return rows != null && (key.isApproximate() || rows > rowThreshold) ? rows : null;
+    }
+}
@@ -0,0 +1,409 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesPartition;
+import com.voicepoc.event.SalesDataChangedEvent;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Maintains the monthly partitions of sales_data on PostgreSQL: creates upcoming months, moves rows that
+// landed in the default partition into their own month, and detaches expired months into gzip CSV archives.
+// Inactive unless sales_data was created partitioned (database/setup.sql or database/partition_sales_data.sql)
+@Service
+public class SalesPartitionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesPartitionService.class);
+    
+    private static final String PARENT = "sales_data";
+    private static final String DEFAULT_PARTITION = "sales_data_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("sales_data_p(\\d{4})_(\\d{2})");
+    private static final String ARCHIVE_SUFFIX = ".csv.gz";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${sales.partitions.enabled:true}")
+    private boolean enabled = true;
+    
+    // Partitions are kept this many months beyond the current one, so inserts never wait on DDL
+    @Value("${sales.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+    
+    // Months kept attached, counting the current one; older months are archived. 0 keeps everything
+    @Value("${sales.partitions.retention-months:0}")
+    private int retentionMonths = 0;
+    
+    @Value("${sales.partitions.archive-dir:archive}")
+    private String archiveDir = "archive";
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private volatile boolean partitioned;
+    
+    // Serialises DDL from the scheduler and the admin endpoints
+    private final Object maintenanceLock = new Object();
+    
+    public SalesPartitionService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('" + PARENT + "')", Integer.class);
+            partitioned = count != null && count > 0;
+        } catch (DataAccessException e) {
+            log.info("Sales partition maintenance disabled, not running on PostgreSQL");
+            return;
+        }
+        if (!partitioned) {
+            log.info("sales_data is not partitioned; database/partition_sales_data.sql converts it");
+            return;
+        }
+        try {
+            Files.createDirectories(archiveDirectory());
+        } catch (IOException e) {
+            log.warn("Sales archive directory {} unavailable: {}", archiveDirectory(), e.getMessage());
+        }
+        maintain();
+    }
+    
+    @Scheduled(fixedDelayString = "${sales.partitions.maintenance-interval-ms:3600000}",
+               initialDelayString = "${sales.partitions.maintenance-interval-ms:3600000}")
+    public void scheduledMaintenance() {
+        if (partitioned) {
+            maintain();
+        }
+    }
+    
+    // Each month is handled on its own so one failure does not hold back the rest
+    public void maintain() {
+        synchronized (maintenanceLock) {
+            YearMonth current = YearMonth.now();
+            Set<YearMonth> attached = attachedMonths();
+            
+            Set<YearMonth> wanted = new TreeSet<>(defaultPartitionMonths());
+            for (int i = 0; i <= monthsAhead; i++) {
+                wanted.add(current.plusMonths(i));
+            }
+            wanted.removeAll(attached);
+            for (YearMonth month : wanted) {
+                try {
+                    createPartition(month, null);
+                } catch (RuntimeException e) {
+                    log.warn("Could not create partition for {}: {}", month, e.getMessage());
+                }
+            }
+            
+            if (retentionMonths > 0) {
+                YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+                for (YearMonth month : attached) {
+                    if (!month.isBefore(oldestKept)) {
+                        break;
+                    }
+                    try {
+                        archive(month);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not archive partition for {}: {}", month, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+    
+    // Attached partitions with planner row estimates, followed by archived months
+    public List<SalesPartition> listPartitions() {
+        requirePartitioned();
+        List<SalesPartition> partitions = new ArrayList<>(jdbcTemplate.query(
+            "SELECT c.relname, c.reltuples::bigint, pg_total_relation_size(c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('" + PARENT + "') ORDER BY c.relname",
+            (rs, rowNum) -> {
+                YearMonth month = monthOf(rs.getString(1));
+                return new SalesPartition(rs.getString(1), month != null ? month.toString() : null,
+                    SalesPartition.ATTACHED, Math.max(0, rs.getLong(2)), rs.getLong(3));
+            }));
+        for (YearMonth month : archivedMonths()) {
+            Path file = archivePath(month);
+            try {
+                partitions.add(new SalesPartition(file.getFileName().toString(), month.toString(),
+                    SalesPartition.ARCHIVED, -1, Files.size(file)));
+            } catch (IOException ignored) {
+                // Removed by a concurrent restore
+            }
+        }
+        return partitions;
+    }
+    
+    // Detaches the month first so queries stop reading it, exports it and only then drops it
+    public SalesPartition archive(YearMonth month) {
+        synchronized (maintenanceLock) {
+            requirePartitioned();
+            String name = partitionName(month);
+            if (!attachedMonths().contains(month)) {
+                throw new IllegalArgumentException("No attached partition for " + month);
+            }
+            Path target = archivePath(month);
+            if (Files.exists(target)) {
+                throw new IllegalStateException("An archive for " + month + " already exists");
+            }
+            
+            long started = System.nanoTime();
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name);
+            long rows;
+            try {
+                rows = export(name, target);
+            } catch (RuntimeException e) {
+                jdbcTemplate.execute(attachStatement(month));
+                throw e;
+            }
+            jdbcTemplate.execute("DROP TABLE " + name);
+            eventPublisher.publishEvent(new SalesDataChangedEvent(month.atDay(1), month.atEndOfMonth(), rows));
+            
+            long bytes = sizeOf(target);
+            log.info("Archived {} ({} rows, {} KB) in {} ms", name, rows, bytes / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+            return new SalesPartition(target.getFileName().toString(), month.toString(), SalesPartition.ARCHIVED, rows, bytes);
+        }
+    }
+    
+    // Loads an archive back into a new partition and removes the archive file
+    public SalesPartition restore(YearMonth month) {
+        synchronized (maintenanceLock) {
+            requirePartitioned();
+            if (attachedMonths().contains(month)) {
+                throw new IllegalStateException("A partition for " + month + " is already attached");
+            }
+            Path archive = archivePath(month);
+            if (!Files.exists(archive)) {
+                throw new IllegalArgumentException("No archive for " + month);
+            }
+            
+            long started = System.nanoTime();
+            long rows = createPartition(month, archive);
+            try {
+                Files.delete(archive);
+            } catch (IOException e) {
+                log.warn("Restored {} but could not delete its archive: {}", month, e.getMessage());
+            }
+            eventPublisher.publishEvent(new SalesDataChangedEvent(month.atDay(1), month.atEndOfMonth(), rows));
+            log.info("Restored {} ({} rows) in {} ms", partitionName(month), rows, (System.nanoTime() - started) / 1_000_000);
+            return new SalesPartition(partitionName(month), month.toString(), SalesPartition.ATTACHED, rows, 0);
+        }
+    }
+    
+    // Builds the month as a plain table, fills it from an archive and from stray default-partition rows, then attaches
+    // it. The CHECK constraint matching the bounds lets ATTACH skip scanning the new table
+    private long createPartition(YearMonth month, Path archive) {
+        String name = partitionName(month);
+        Long rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + ")");
+            long restored = archive != null ? importFrom(name, archive) : 0;
+            int moved = jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE sales_date >= ? AND sales_date < ? RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved",
+                Date.valueOf(month.atDay(1)), Date.valueOf(month.plusMonths(1).atDay(1)));
+            jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_bounds CHECK (sales_date >= DATE '"
+                + month.atDay(1) + "' AND sales_date < DATE '" + month.plusMonths(1).atDay(1) + "')");
+            jdbcTemplate.execute(attachStatement(month));
+            jdbcTemplate.execute("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_bounds");
+            if (moved > 0) {
+                log.info("Moved {} rows for {} out of {}", moved, month, DEFAULT_PARTITION);
+            }
+            return restored + moved;
+        });
+        log.debug("Created partition {}", name);
+        return rows != null ? rows : 0;
+    }
+    
+    private long export(String table, Path target) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(target.getParent(), ".tmp-", ARCHIVE_SUFFIX);
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), 64 * 1024)) {
+                rows = copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER true)", out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target);
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new IllegalStateException("Archiving " + table + " failed: " + e.getMessage(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Harmless leftover; the next archive uses a new temp name
+                }
+            }
+        }
+    }
+    
+    // Copies into the columns named by the archive's header, so archives written before a column was added
+    // still restore; the new column is left at its default
+    private long importFrom(String table, Path archive) {
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(archive)), 64 * 1024)) {
+            String columns = headerColumns(in);
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)", in);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Restoring " + table + " failed: " + e.getMessage(), e);
+        }
+    }
+    
+    // Reads the header line byte by byte, leaving the stream at the first row
+    private static String headerColumns(InputStream in) throws IOException {
+        StringBuilder header = new StringBuilder();
+        int c;
+        while ((c = in.read()) >= 0 && c != '\n') {
+            if (c != '\r') {
+                header.append((char) c);
+            }
+        }
+        if (!header.toString().matches("[a-z_]+(,[a-z_]+)*")) {
+            throw new IOException("Unexpected archive header: " + header);
+        }
+        return header.toString();
+    }
+    
+    private long copyOut(String sql, OutputStream out) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+        } catch (SQLException e) {
+            throw new IllegalStateException("COPY failed: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+    
+    private Set<YearMonth> attachedMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass('" + PARENT + "')", rs -> {
+                YearMonth month = monthOf(rs.getString(1));
+                if (month != null) {
+                    months.add(month);
+                }
+            });
+        return months;
+    }
+    
+    // The default partition should stay near empty, so this scan is cheap
+    private List<YearMonth> defaultPartitionMonths() {
+        return jdbcTemplate.query("SELECT DISTINCT date_trunc('month', sales_date)::date FROM " + DEFAULT_PARTITION,
+            (rs, rowNum) -> YearMonth.from(rs.getDate(1).toLocalDate()));
+    }
+    
+    private Set<YearMonth> archivedMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(archiveDirectory(), "*" + ARCHIVE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                YearMonth month = monthOf(name.substring(0, name.length() - ARCHIVE_SUFFIX.length()));
+                if (month != null) {
+                    months.add(month);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Sales archive directory scan failed: {}", e.getMessage());
+        }
+        return months;
+    }
+    
+    private String attachStatement(YearMonth month) {
+        return "ALTER TABLE " + PARENT + " ATTACH PARTITION " + partitionName(month)
+            + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+    
+    private void requirePartitioned() {
+        if (!partitioned) {
+            throw new IllegalStateException("sales_data is not partitioned");
+        }
+    }
+    
+    private Path archiveDirectory() {
+        return Paths.get(archiveDir).toAbsolutePath().normalize();
+    }
+    
+    private Path archivePath(YearMonth month) {
+        return archiveDirectory().resolve(partitionName(month) + ARCHIVE_SUFFIX);
+    }
+    
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    static String partitionName(YearMonth month) {
+        return String.format("sales_data_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+    
+    static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        return matcher.matches()
+            ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))) : null;
+    }
+    
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+}
@@ -0,0 +1,113 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+// Totals for the summary sheets, accumulated one row at a time while the rows stream past.
+// Money is summed as long cents so a million-row pass allocates no BigDecimal per group
+public class SalesPivot implements Consumer<SalesRow> {
+    
+    private final Totals total = new Totals();
+    private final Map<String, Totals> byCategory = new HashMap<>();
+    private final Map<String, Totals> byRegion = new HashMap<>();
+    private final Map<String, Totals> byProduct = new HashMap<>();
+    private final Map<String, Totals> byCustomer = new HashMap<>();
+    // Month key "yyyy-MM" to category to revenue in cents, months in ascending order
+    private final TreeMap<String, Map<String, long[]>> monthByCategory = new TreeMap<>();
+    private final Map<LocalDate, String> monthKeys = new HashMap<>();
+    
+    @Override
+    public void accept(SalesRow row) {
+        int quantity = row.getQuantity() != null ? row.getQuantity() : 0;
+        long cents = toCents(row.getTotalAmount());
+        total.add(quantity, cents);
+        byCategory.computeIfAbsent(row.getCategory(), k -> new Totals()).add(quantity, cents);
+        byRegion.computeIfAbsent(row.getRegion(), k -> new Totals()).add(quantity, cents);
+        byProduct.computeIfAbsent(row.getProductName(), k -> new Totals()).add(quantity, cents);
+        byCustomer.computeIfAbsent(row.getCustomerName(), k -> new Totals()).add(quantity, cents);
+        
+        String month = monthKeys.computeIfAbsent(row.getSalesDate(),
+            date -> String.format("%04d-%02d", date.getYear(), date.getMonthValue()));
+        monthByCategory.computeIfAbsent(month, k -> new HashMap<>())
+            .computeIfAbsent(row.getCategory(), k -> new long[1])[0] += cents;
+    }
+    
+    public Totals getTotal() {
+        return total;
+    }
+    
+    public List<Map.Entry<String, Totals>> byCategory() {
+        return byRevenue(byCategory, Integer.MAX_VALUE);
+    }
+    
+    public List<Map.Entry<String, Totals>> byRegion() {
+        return byRevenue(byRegion, Integer.MAX_VALUE);
+    }
+    
+    public List<Map.Entry<String, Totals>> topProducts(int limit) {
+        return byRevenue(byProduct, limit);
+    }
+    
+    public List<Map.Entry<String, Totals>> topCustomers(int limit) {
+        return byRevenue(byCustomer, limit);
+    }
+    
+    public List<String> months() {
+        return new ArrayList<>(monthByCategory.keySet());
+    }
+    
+    // Categories in the same order as the category sheet, so pivot columns line up with it
+    public List<String> categories() {
+        return byCategory().stream().map(Map.Entry::getKey).toList();
+    }
+    
+    public long monthRevenueCents(String month, String category) {
+        long[] cents = monthByCategory.getOrDefault(month, Map.of()).get(category);
+        return cents != null ? cents[0] : 0L;
+    }
+    
+    private static List<Map.Entry<String, Totals>> byRevenue(Map<String, Totals> groups, int limit) {
+        return groups.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Totals> e) -> e.getValue().revenueCents).reversed())
+            .limit(limit)
+            .toList();
+    }
+    
+    static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0L;
+    }
+    
+    public static class Totals {
+        private long records;
+        private long quantity;
+        private long revenueCents;
+        
+        void add(int rowQuantity, long cents) {
+            records++;
+            quantity += rowQuantity;
+            revenueCents += cents;
+        }
+        
+        public long getRecords() {
+            return records;
+        }
+        
+        public long getQuantity() {
+            return quantity;
+        }
+        
+        public long getRevenueCents() {
+            return revenueCents;
+        }
+    }
+}
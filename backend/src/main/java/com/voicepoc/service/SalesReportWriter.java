@@ -0,0 +1,25 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.ReportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+// One report file format; ReportGenerationService picks the writer for the key's export format
+public interface SalesReportWriter {
+    
+    ReportFormat getFormat();
+    
+    // Rows may come straight from a database cursor, so they are read once and never collected
+    void writeDetail(Stream<SalesRow> rows, QueryKey key, OutputStream out) throws IOException;
+    
+    void writeSummary(List<SalesSummary> summary, QueryKey key, OutputStream out) throws IOException;
+    
+    // The compared periods are the key's, in the same order as each group's arrays
+    void writeComparison(List<SalesComparison> comparison, QueryKey key, OutputStream out) throws IOException;
+}
@@ -0,0 +1,202 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesCell;
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.event.DirtyDateRanges;
+import com.voicepoc.event.SalesDataChangedEvent;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.repository.SalesDataFilter;
+import com.voicepoc.repository.SalesDataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps sales_daily_rollup in step with sales_data by rebuilding only the days that changed,
+// and answers grouped queries from it whenever the requested filters exist at rollup granularity
+@Service
+public class SalesRollupService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+    
+    private static final String DELETE_DAYS = "DELETE FROM sales_daily_rollup WHERE sales_day BETWEEN ? AND ?";
+    
+    private static final String INSERT_DAYS =
+        "INSERT INTO sales_daily_rollup (sales_day, category, region, record_count, total_quantity, total_revenue) " +
+        "SELECT sales_date, category, region, COUNT(*), COALESCE(SUM(quantity), 0), COALESCE(SUM(total_amount), 0) " +
+        "FROM sales_data WHERE sales_date BETWEEN ? AND ? GROUP BY sales_date, category, region";
+    
+    @Autowired
+    private SalesDataRepository salesDataRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${sales.rollup.enabled:true}")
+    private volatile boolean enabled = true;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    // Day ranges whose rollup rows may be stale
+    private final DirtyDateRanges dirtyRanges = new DirtyDateRanges();
+    
+    // Separate from the dirty-range monitor so writers can mark days while a rebuild runs
+    private final Object refreshLock = new Object();
+    
+    // Rollup is only trusted once it has been checked against sales_data after startup
+    private volatile boolean verified;
+    
+    private final AtomicLong rollupQueries = new AtomicLong();
+    private final AtomicLong rawQueries = new AtomicLong();
+    
+    public SalesRollupService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public List<SalesSummary> aggregate(SalesDimension dimension, SalesDataFilter filter) {
+        if (canAnswer(dimension, filter)) {
+            ensureFresh(filter.getStartDate(), filter.getEndDate());
+            rollupQueries.incrementAndGet();
+            return salesDataRepository.aggregateFromRollup(dimension, filter);
+        }
+        rawQueries.incrementAndGet();
+        return salesDataRepository.aggregateBy(dimension, filter);
+    }
+    
+    public List<SalesCell> aggregateCells(SalesDimension dimension, SalesDataFilter filter) {
+        if (canAnswer(dimension, filter)) {
+            ensureFresh(filter.getStartDate(), filter.getEndDate());
+            rollupQueries.incrementAndGet();
+            return salesDataRepository.aggregateCellsFromRollup(dimension, filter);
+        }
+        rawQueries.incrementAndGet();
+        return salesDataRepository.aggregateCellsBy(dimension, filter);
+    }
+    
+    public List<SalesComparison> aggregatePeriods(SalesDimension dimension, SalesDataFilter filter,
+                                                  List<DateRange> periods) {
+        if (canAnswer(dimension, filter)) {
+            periods.forEach(period -> ensureFresh(period.getStartDate(), period.getEndDate()));
+            rollupQueries.incrementAndGet();
+            return salesDataRepository.aggregatePeriodsFromRollup(dimension, filter, periods);
+        }
+        rawQueries.incrementAndGet();
+        return salesDataRepository.aggregatePeriods(dimension, filter, periods);
+    }
+    
+    private boolean canAnswer(SalesDimension dimension, SalesDataFilter filter) {
+        return enabled && verified && dimension != SalesDimension.PRODUCT && dimension != SalesDimension.CUSTOMER
+            && filter.getProductName() == null && filter.getCustomerName() == null;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesDataChanged(SalesDataChangedEvent event) {
+        if (enabled) {
+            dirtyRanges.add(event.getFromDate(), event.getToDate());
+        }
+    }
+    
+    // A startup check catches rows written while the application was down; a mismatch rebuilds the whole span
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Long rawRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales_data", Long.class);
+            Long rolledUpRows = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(record_count), 0) FROM sales_daily_rollup", Long.class);
+            if (rawRows != null && !rawRows.equals(rolledUpRows)) {
+                LocalDate[] span = jdbcTemplate.queryForObject("SELECT MIN(sales_date), MAX(sales_date) FROM sales_data",
+                    (rs, rowNum) -> new LocalDate[] {toLocalDate(rs.getDate(1)), toLocalDate(rs.getDate(2))});
+                log.info("Sales rollup out of step ({} raw rows, {} rolled up), rebuilding", rawRows, rolledUpRows);
+                // Leftover rollup rows outside the current span are cleared as well
+                jdbcTemplate.update("DELETE FROM sales_daily_rollup");
+                if (span != null && span[0] != null) {
+                    dirtyRanges.add(span[0], span[1]);
+                }
+            }
+            refresh();
+            verified = true;
+        } catch (RuntimeException e) {
+            // Grouped queries keep reading sales_data directly
+            log.warn("Sales rollup unavailable, disabling it: {}", e.getMessage());
+            enabled = false;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${sales.rollup.refresh-interval-ms:5000}",
+               initialDelayString = "${sales.rollup.refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+    
+    // Rebuilds every dirty day range; ranges that fail are put back for the next attempt
+    public void refresh() {
+        synchronized (refreshLock) {
+            List<DateRange> ranges = dirtyRanges.drain();
+            try {
+                for (int i = 0; i < ranges.size(); i++) {
+                    DateRange range = ranges.get(i);
+                    try {
+                        rebuild(range.getStartDate(), range.getEndDate());
+                    } catch (RuntimeException e) {
+                        log.warn("Sales rollup rebuild {} failed: {}", range, e.getMessage());
+                        dirtyRanges.addAll(ranges.subList(i, ranges.size()));
+                        throw e;
+                    }
+                }
+            } finally {
+                dirtyRanges.finish();
+            }
+        }
+    }
+    
+    private void rebuild(LocalDate fromDate, LocalDate toDate) {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_DAYS, Date.valueOf(fromDate), Date.valueOf(toDate));
+            jdbcTemplate.update(INSERT_DAYS, Date.valueOf(fromDate), Date.valueOf(toDate));
+        });
+        log.debug("Rebuilt sales rollup {}..{} in {} ms", fromDate, toDate, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private void ensureFresh(LocalDate startDate, LocalDate endDate) {
+        if (dirtyRanges.overlaps(startDate, endDate)) {
+            refresh();
+        }
+    }
+    
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+    
+    public long getRollupQueries() {
+        return rollupQueries.get();
+    }
+    
+    public long getRawQueries() {
+        return rawQueries.get();
+    }
+    
+    public int getDirtyRangeCount() {
+        return dirtyRanges.size();
+    }
+}
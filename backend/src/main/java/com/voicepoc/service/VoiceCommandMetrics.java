@@ -0,0 +1,107 @@
+package com.voicepoc.service;
+
+import com.voicepoc.model.SalesDimension;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Per-stage timings and sizes for the voice pipeline, published under voice.command.* and voice.report.*.
+// Histogram buckets are switched on in application.properties so Prometheus can compute quantiles across instances
+@Component
+public class VoiceCommandMetrics {
+    
+    public enum Stage {
+        // Normalising the text and extracting intent, category, region and grouping
+        PARSE,
+        // Resolving the date expression to a range
+        DATES,
+        // Grouped query against the columnar engine, rollup or sales_data
+        AGGREGATE,
+        // Streamed detail query; rows go straight into the workbook, so this includes writing it
+        DETAIL,
+        // Summary workbook for a grouped query
+        REPORT
+    }
+    
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final DistributionSummary detailRows;
+    private final DistributionSummary groupedRows;
+    private final DistributionSummary reportBytes;
+    private final Timer reportWrite;
+    
+    public VoiceCommandMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("voice.command.stage")
+                .description("Time spent in one stage of a voice command")
+                .tag("stage", stage.name().toLowerCase())
+                .register(registry));
+        }
+        this.detailRows = rowSummary("detail");
+        this.groupedRows = rowSummary("grouped");
+        this.reportBytes = DistributionSummary.builder("voice.report.size")
+            .description("Size of newly written report files")
+            .baseUnit("bytes")
+            .register(registry);
+        this.reportWrite = Timer.builder("voice.report.write")
+            .description("Time to write and publish a new report file")
+            .register(registry);
+    }
+    
+    private DistributionSummary rowSummary(String kind) {
+        return DistributionSummary.builder("voice.command.rows")
+            .description("Sales rows matched by a voice command")
+            .baseUnit("rows")
+            .tag("kind", kind)
+            .register(registry);
+    }
+    
+    public <T> T time(Stage stage, Supplier<T> work) {
+        return stageTimers.get(stage).record(work);
+    }
+    
+    public void recordRows(SalesDimension groupBy, long rows) {
+        (groupBy != null ? groupedRows : detailRows).record(rows);
+    }
+    
+    public void recordReportWrite(long nanos, long bytes) {
+        reportWrite.record(nanos, TimeUnit.NANOSECONDS);
+        reportBytes.record(bytes);
+    }
+    
+    // Reasons are a small fixed set so the counter stays low-cardinality
+    public void rejected(String reason) {
+        Counter.builder("voice.command.rejected")
+            .description("Voice commands answered with an error instead of a report")
+            .tag("reason", reason)
+            .register(registry)
+            .increment();
+    }
+    
+    // scheduled, dropped (queue full), cancelled (intent changed) or used (the final command matched it)
+    public void prefetch(String outcome) {
+        Counter.builder("voice.prefetch")
+            .description("Speculative queries started from partial transcripts")
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment();
+    }
+    
+    // kind is distinct or top; source is sketch when answered from the sketches, otherwise exact
+    public void estimate(String kind, String source) {
+        Counter.builder("voice.estimate")
+            .description("Distinct-count and top-N questions, by how they were answered")
+            .tag("kind", kind)
+            .tag("source", source)
+            .register(registry)
+            .increment();
+    }
+}
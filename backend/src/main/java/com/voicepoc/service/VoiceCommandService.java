@@ -1,19 +1,48 @@
 package com.voicepoc.service;
 
+import com.voicepoc.analytics.ColumnarSalesEngine;
+import com.voicepoc.dto.ReportJob;
+import com.voicepoc.dto.SalesColumns;
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesEstimate;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.dto.VoiceCommandBatchRequest;
+import com.voicepoc.dto.VoiceCommandBatchResponse;
 import com.voicepoc.dto.VoiceCommandRequest;
 import com.voicepoc.dto.VoiceCommandResponse;
-import com.voicepoc.model.SalesData;
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.model.ReportMode;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateExpressionParser;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.parser.InvalidDateException;
+import com.voicepoc.parser.IntentParser;
+import com.voicepoc.parser.VoiceIntent;
+import com.voicepoc.repository.SalesDataFilter;
 import com.voicepoc.repository.SalesDataRepository;
+import com.voicepoc.service.VoiceCommandMetrics.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class VoiceCommandService {
@@ -24,241 +53,530 @@ public class VoiceCommandService {
     @Autowired
     private ReportGenerationService reportGenerationService;
     
-    private static final Pattern DATE_PATTERN = Pattern.compile(
-        "(\\d{1,2})[\\s/-](\\d{1,2})[\\s/-](\\d{4})|(\\d{4})[\\s/-](\\d{1,2})[\\s/-](\\d{1,2})"
-    );
+    @Autowired
+    private IntentParser intentParser;
+    
+    @Autowired
+    private DateExpressionParser dateExpressionParser;
+    
+    @Autowired
+    private QueryResultCache queryResultCache;
+    
+    @Autowired
+    private ReportStore reportStore;
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private ColumnarSalesEngine columnarSalesEngine;
+    
+    @Autowired
+    private VoiceCommandMetrics metrics;
     
-    private static final Pattern MONTH_YEAR_PATTERN = Pattern.compile(
-        "(january|february|march|april|may|june|july|august|september|october|november|december)\\s+(\\d{4})"
-    );
+    @Autowired
+    private BatchQueryPlanner batchQueryPlanner;
+    
+    @Autowired
+    private SalesComparisonService salesComparisonService;
+    
+    @Autowired
+    private SalesEstimateService salesEstimateService;
+    
+    // Detail rows returned in JSON; the report still covers every matching row
+    @Value("${voice.response.max-rows:1000}")
+    private int maxResponseRows = 1000;
+    
+    @Value("${sales.api.stream-fetch-size:1000}")
+    private int fetchSize = 1000;
+    
+    @Value("${voice.batch.max-commands:50}")
+    private int maxBatchCommands = 50;
+    
+    private final TransactionTemplate readOnlyTransaction;
+    
+    // Queries being computed right now, so a command arriving mid-way (typically the final transcript
+    // behind its own prefetch) waits for that result instead of running the same query again
+    private final Map<QueryKey, CompletableFuture<QueryResult>> inFlight = new ConcurrentHashMap<>();
+    
+    public VoiceCommandService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
     
     public VoiceCommandResponse processVoiceCommand(VoiceCommandRequest request) {
         try {
-            String command = request.getCommand().toLowerCase().trim();
-            VoiceCommandResponse response = new VoiceCommandResponse();
-            
-            // Validate if command is empty or too short
-            if (command.isEmpty() || command.length() < 3) {
-                return new VoiceCommandResponse(false, "Please provide a valid voice command. Example: 'Generate report for electronics category'");
+            ResolvedCommand resolved = resolve(request);
+            if (resolved.rejection != null) {
+                return resolved.rejection;
             }
+            String command = resolved.command;
+            QueryKey key = resolved.key;
             
-            // Check if command contains report-related keywords
-            if (!isValidReportCommand(command)) {
-                return new VoiceCommandResponse(false, "I don't understand that command. Please try commands like:\n" +
-                    "• 'Generate report for electronics category'\n" +
-                    "• 'Show sales data for North region'\n" +
-                    "• 'Create report from January to March 2024'\n" +
-                    "• 'Generate clothing sales report'");
+            // Repeat queries for the same normalized intent skip both the database and the report writer
+            QueryResult result = cached(key);
+            if (result != null) {
+                return buildResponse(request, command, key, result);
             }
             
-            // Extract dates from command
-            DateRange dateRange = extractDateRange(command);
-            if (dateRange == null) {
-                return new VoiceCommandResponse(false, "Could not understand date range in your command. Please specify dates like 'January 1st 2024 to March 31st 2024'");
+            // Async callers get a job id straight away and poll or subscribe for the finished report
+            if (request.isAsync()) {
+                ReportJob job = reportJobService.submit(() -> buildResponse(request, command, key, computeAndCache(key)));
+                VoiceCommandResponse response = buildResponse(request, command, key, null);
+                response.setJobId(job.getId());
+                response.setMessage("Report queued as job " + job.getId());
+                return response;
             }
             
-            // Extract category and region if mentioned
-            String category = extractCategory(command);
-            String region = extractRegion(command);
-            
-            response.setInterpretedCommand(command);
-            response.setStartDate(dateRange.startDate);
-            response.setEndDate(dateRange.endDate);
-            response.setCategory(category);
-            response.setRegion(region);
-            
-            // Fetch sales data
-            List<SalesData> salesData = fetchSalesData(dateRange.startDate, dateRange.endDate, category, region);
-            response.setSalesData(salesData);
-            
-            // Generate report
-            String reportUrl = reportGenerationService.generateReport(salesData, dateRange.startDate, dateRange.endDate);
-            response.setReportUrl(reportUrl);
-            
-            response.setSuccess(true);
-            response.setMessage(String.format("Generated report for %d records from %s to %s", 
-                salesData.size(), dateRange.startDate, dateRange.endDate));
-            
-            return response;
+            return buildResponse(request, command, key, computeAndCache(key));
             
+        } catch (ReportQueueFullException e) {
+            metrics.rejected("queue_full");
+            throw e;
+        } catch (ReportTooLargeException e) {
+            metrics.rejected("too_large");
+            return new VoiceCommandResponse(false, e.getMessage());
         } catch (Exception e) {
+            metrics.rejected("error");
             return new VoiceCommandResponse(false, "Error processing voice command: " + e.getMessage());
         }
     }
     
-    private DateRange extractDateRange(String command) {
-        // Try to extract explicit date ranges
-        String[] dateKeywords = {"from", "between", "to", "until", "till"};
+    // Answers related commands together: duplicates collapse to one query, cached results are reused,
+    // and the remaining queries are grouped so that each group costs one database scan
+    public VoiceCommandBatchResponse processBatch(VoiceCommandBatchRequest batch) {
+        List<VoiceCommandRequest> requests = batch.getCommands();
+        if (requests.size() > maxBatchCommands) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxBatchCommands + " commands");
+        }
+        VoiceCommandResponse[] responses = new VoiceCommandResponse[requests.size()];
+        ResolvedCommand[] resolved = new ResolvedCommand[requests.size()];
+        Map<QueryKey, List<Integer>> pending = new LinkedHashMap<>();
         
-        for (String keyword : dateKeywords) {
-            if (command.contains(keyword)) {
-                String[] parts = command.split(keyword);
-                if (parts.length >= 2) {
-                    LocalDate startDate = parseDate(parts[0].trim());
-                    LocalDate endDate = parseDate(parts[1].trim());
-                    
-                    if (startDate != null && endDate != null) {
-                        return new DateRange(startDate, endDate);
-                    }
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                resolved[i] = resolve(requests.get(i));
+                if (resolved[i].rejection != null) {
+                    responses[i] = resolved[i].rejection;
+                    continue;
+                }
+                QueryResult result = cached(resolved[i].key);
+                if (result != null) {
+                    responses[i] = buildResponse(requests.get(i), resolved[i].command, resolved[i].key, result);
+                } else {
+                    pending.computeIfAbsent(resolved[i].key, k -> new ArrayList<>()).add(i);
                 }
+            } catch (Exception e) {
+                metrics.rejected("error");
+                responses[i] = new VoiceCommandResponse(false, "Error processing voice command: " + e.getMessage());
             }
         }
         
-        // Try to extract month-year patterns
-        Matcher monthMatcher = MONTH_YEAR_PATTERN.matcher(command);
-        if (monthMatcher.find()) {
-            String month = monthMatcher.group(1);
-            int year = Integer.parseInt(monthMatcher.group(2));
-            
-            LocalDate startDate = LocalDate.of(year, getMonthNumber(month), 1);
-            LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-            
-            return new DateRange(startDate, endDate);
+        List<List<QueryKey>> groups = batchQueryPlanner.plan(pending.keySet());
+        int scans = 0;
+        for (List<QueryKey> group : groups) {
+            long generation = queryResultCache.currentGeneration();
+            try {
+                Map<QueryKey, QueryResult> results = group.size() == 1 ? null : batchQueryPlanner.execute(group);
+                if (results == null) {
+                    // A single key, or a detail group too large to share a scan: each query streams on its own
+                    results = new LinkedHashMap<>();
+                    for (QueryKey key : group) {
+                        results.put(key, executeQuery(key));
+                    }
+                    // The abandoned shared scan of an oversized group counts as well
+                    scans += group.size() > 1 ? group.size() + 1 : 1;
+                } else {
+                    scans++;
+                }
+                results.forEach((key, result) -> {
+                    queryResultCache.put(key, result, generation);
+                    for (int i : pending.get(key)) {
+                        responses[i] = buildResponse(requests.get(i), resolved[i].command, key, result);
+                    }
+                });
+            } catch (Exception e) {
+                for (QueryKey key : group) {
+                    for (int i : pending.get(key)) {
+                        metrics.rejected("error");
+                        responses[i] = new VoiceCommandResponse(false, "Error processing voice command: " + e.getMessage());
+                    }
+                }
+            }
         }
-        
-        // Default to last 12 months if no dates found to capture more data
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusMonths(12);
-        
-        return new DateRange(startDate, endDate);
+        return new VoiceCommandBatchResponse(Arrays.asList(responses), pending.size(), scans);
+    }
+    
+    // Query a possibly unfinished command would run, or null if it would be rejected; nothing is executed
+    public QueryKey interpret(VoiceCommandRequest request) {
+        return resolve(request, true).key;
+    }
+    
+    // Interim view of an unfinished command: the filters it resolves to so far, without results
+    public VoiceCommandResponse preview(VoiceCommandRequest request, QueryKey key) {
+        return buildResponse(request, intentParser.parse(request.getCommand()).getCommand(), key, null);
     }
     
-    private LocalDate parseDate(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty()) {
-            return null;
+    // Runs and caches a query ahead of the command that will ask for it; a cached or running query is left alone
+    public void prefetch(QueryKey key) {
+        if (!inFlight.containsKey(key) && cached(key) == null) {
+            computeAndCache(key);
         }
+    }
+    
+    private ResolvedCommand resolve(VoiceCommandRequest request) {
+        return resolve(request, false);
+    }
+    
+    // Partial transcripts are parsed many times per spoken command, so timing them would swamp the
+    // per-command stage latencies
+    private <T> T timeUnlessSpeculative(Stage stage, boolean speculative, Supplier<T> work) {
+        return speculative ? work.get() : metrics.time(stage, work);
+    }
+    
+    // Parses and validates a command into a query key, or the response explaining why it was rejected.
+    // Speculative parses of partial transcripts are not counted as rejections, nor timed as stages
+    private ResolvedCommand resolve(VoiceCommandRequest request, boolean speculative) {
+        VoiceIntent intent = timeUnlessSpeculative(Stage.PARSE, speculative, () -> intentParser.parse(request.getCommand()));
+        String command = intent.getCommand();
         
-        // Remove common words
-        dateStr = dateStr.replaceAll("\\b(st|nd|rd|th)\\b", "");
-        dateStr = dateStr.trim();
+        // Validate if command is empty or too short
+        if (command.isEmpty() || command.length() < 3) {
+            if (!speculative) {
+                metrics.rejected("too_short");
+            }
+            return ResolvedCommand.rejected(new VoiceCommandResponse(false, "Please provide a valid voice command. Example: 'Generate report for electronics category'"));
+        }
         
-        // Try different date formats
-        String[] formats = {
-            "MM/dd/yyyy", "dd/MM/yyyy", "yyyy-MM-dd",
-            "MM-dd-yyyy", "dd-MM-yyyy", "M/d/yyyy",
-            "d/M/yyyy", "MMM d, yyyy", "d MMM yyyy"
-        };
+        // Check if command contains report-related keywords
+        if (!intent.isReportCommand()) {
+            if (!speculative) {
+                metrics.rejected("not_a_report");
+            }
+            return ResolvedCommand.rejected(new VoiceCommandResponse(false, "I don't understand that command. Please try commands like:\n" +
+                "• 'Generate report for electronics category'\n" +
+                "• 'Show sales data for North region'\n" +
+                "• 'Create report from January to March 2024'\n" +
+                "• 'Generate clothing sales report'"));
+        }
         
-        for (String format : formats) {
-            try {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-                return LocalDate.parse(dateStr, formatter);
-            } catch (DateTimeParseException e) {
-                // Continue to next format
+        // A name that matched nothing would otherwise leave its filter out and report on everything
+        if (intent.getUnmatchedName() != null) {
+            if (!speculative) {
+                metrics.rejected("unknown_name");
             }
+            return ResolvedCommand.rejected(new VoiceCommandResponse(false, String.format(
+                "I couldn't match %s '%s' to a single name in the sales data. Please say the full %s name, or leave it out",
+                intent.getUnmatchedDimension(), intent.getUnmatchedName(), intent.getUnmatchedDimension())));
         }
         
-        return null;
-    }
-    
-    private int getMonthNumber(String month) {
-        String[] months = {"january", "february", "march", "april", "may", "june",
-                          "july", "august", "september", "october", "november", "december"};
-        return Arrays.asList(months).indexOf(month.toLowerCase()) + 1;
+        // Extract dates from command; "this month vs last month" names several periods
+        List<DateRange> periods;
+        try {
+            periods = timeUnlessSpeculative(Stage.DATES, speculative, () -> extractPeriods(intent));
+        } catch (InvalidDateException e) {
+            if (!speculative) {
+                metrics.rejected("invalid_date");
+            }
+            return ResolvedCommand.rejected(new VoiceCommandResponse(false, e.getMessage() + ". Please specify real dates like 'January 1st 2024 to March 31st 2024'"));
+        }
+        DateRange dateRange = periods.get(0);
+        if (dateRange == null) {
+            if (!speculative) {
+                metrics.rejected("no_date_range");
+            }
+            return ResolvedCommand.rejected(new VoiceCommandResponse(false, "Could not understand date range in your command. Please specify dates like 'January 1st 2024 to March 31st 2024'"));
+        }
+        
+        // An explicit exportFormat on the request wins over a format named in the command
+        ReportFormat exportFormat = request.getExportFormat() == null && intent.getExportFormat() != null
+            ? intent.getExportFormat() : ReportFormat.from(request.getExportFormat());
+        
+        // Extract category and region if mentioned
+        QueryKey key = new QueryKey(dateRange.getStartDate(), dateRange.getEndDate(),
+            intent.getCategory(), intent.getRegion(), intent.getProductName(), intent.getCustomerName(),
+            intent.getGroupBy(), ReportMode.from(request.getReportMode()), exportFormat);
+        if (periods.size() > 1) {
+            key = key.comparing(periods);
+        } else if (intent.getDistinctOf() != null) {
+            key = key.countingDistinct(intent.getDistinctOf(), intent.isApproximate());
+        } else if (intent.getTopN() > 0) {
+            key = key.ranking(intent.getTopOf(), intent.getTopN(), intent.isApproximate());
+        }
+        return new ResolvedCommand(command, key, null);
     }
     
-    private String extractCategory(String command) {
-        String[] categories = {"electronics", "clothing", "books", "furniture", "sports"};
-        for (String category : categories) {
-            if (command.contains(category)) {
-                // Capitalize first letter to match database values
-                return category.substring(0, 1).toUpperCase() + category.substring(1);
-            }
+    // A cached result is only usable while its report file, if it has one, is still on disk
+    private QueryResult cached(QueryKey key) {
+        QueryResult result = queryResultCache.get(key);
+        if (result != null && result.getReportUrl() != null && !reportStore.exists(result.getReportUrl())) {
+            queryResultCache.remove(key);
+            result = null;
         }
-        return null;
+        return result;
     }
     
-    private String extractRegion(String command) {
-        String[] regions = {"north", "south", "east", "west", "central"};
-        for (String region : regions) {
-            if (command.contains(region)) {
-                // Capitalize first letter to match database values
-                return region.substring(0, 1).toUpperCase() + region.substring(1);
+    private QueryResult computeAndCache(QueryKey key) {
+        while (true) {
+            CompletableFuture<QueryResult> computation = new CompletableFuture<>();
+            CompletableFuture<QueryResult> running = inFlight.putIfAbsent(key, computation);
+            if (running == null) {
+                try {
+                    long generation = queryResultCache.currentGeneration();
+                    QueryResult result = executeQuery(key);
+                    queryResultCache.put(key, result, generation);
+                    computation.complete(result);
+                    return result;
+                } catch (RuntimeException e) {
+                    computation.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, computation);
+                }
+            }
+            try {
+                return running.join();
+            } catch (CancellationException e) {
+                // A cancelled prefetch leaves the query to whoever still wants it
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
             }
         }
-        return null;
     }
     
-    private boolean isValidReportCommand(String command) {
-        // Check for report-related keywords (must have at least one)
-        String[] reportKeywords = {
-            "generate", "create", "show", "display", "get", "fetch", "report", 
-            "sales", "data", "analytics", "dashboard", "summary", "overview"
-        };
-        
-        // Check for business-related keywords
-        String[] businessKeywords = {
-            "electronics", "clothing", "books", "furniture", "sports",
-            "north", "south", "east", "west", "central",
-            "category", "region", "product", "customer", "revenue"
-        };
-        
-        // Check for time-related keywords
-        String[] timeKeywords = {
-            "from", "to", "between", "last", "month", "year", "week", "day",
-            "january", "february", "march", "april", "may", "june",
-            "july", "august", "september", "october", "november", "december"
-        };
-        
-        // Check for invalid/generic keywords that should be rejected
-        String[] invalidKeywords = {
-            "hello", "hi", "weather", "music", "play", "open", "joke", "tell", "what", "how", "why", "when", "where", "who"
-        };
-        
-        // If command contains invalid keywords, reject it
-        for (String invalidKeyword : invalidKeywords) {
-            if (command.contains(invalidKeyword)) {
-                return false;
-            }
+    private VoiceCommandResponse buildResponse(VoiceCommandRequest request, String command, QueryKey key,
+                                               QueryResult result) {
+        VoiceCommandResponse response = new VoiceCommandResponse();
+        response.setInterpretedCommand(command);
+        response.setStartDate(key.getStartDate());
+        response.setEndDate(key.getEndDate());
+        response.setCategory(key.getCategory());
+        response.setRegion(key.getRegion());
+        response.setProductName(key.getProductName());
+        response.setCustomerName(key.getCustomerName());
+        response.setGroupBy(key.getGroupBy());
+        response.setComparedPeriods(key.getPeriods());
+        response.setSuccess(true);
+        if (result == null) {
+            return response;
         }
         
-        // Count matches for each category
-        int reportMatches = 0;
-        int businessMatches = 0;
-        int timeMatches = 0;
+        if (result.getSalesData() != null) {
+            setRows(response, request, result);
+        }
+        response.setSummary(result.getSummary());
+        response.setComparison(result.getComparison());
+        response.setReportUrl(result.getReportUrl());
+        response.setRecordCount(result.getRecordCount());
+        response.setTotalAmount(result.getTotalAmount());
+        if (key.isQuestion()) {
+            response.setApproximate(result.isApproximate());
+            response.setEstimates(result.getEstimates());
+        }
         
-        for (String keyword : reportKeywords) {
-            if (command.contains(keyword)) {
-                reportMatches++;
+        if (key.isComparison()) {
+            response.setMessage(comparisonMessage(key, result));
+        } else if (key.getDistinctOf() != null) {
+            response.setMessage(distinctMessage(key, result));
+        } else if (key.getTopN() > 0) {
+            response.setMessage(String.format("%s %d %s by revenue over %d records from %s to %s%s",
+                result.isApproximate() ? "Estimated top" : "Top", key.getTopN(),
+                plural(key.getGroupBy()), result.getRecordCount(), key.getStartDate(),
+                key.getEndDate(), result.isApproximate() ? "; each revenue is an upper bound" : ""));
+        } else if (key.getGroupBy() != null) {
+            response.setMessage(String.format("Summarised %d records into %d %s groups from %s to %s",
+                result.getRecordCount(), result.getSummary().size(), key.getGroupBy().getLabel().toLowerCase(),
+                key.getStartDate(), key.getEndDate()));
+        } else {
+            response.setMessage(String.format("Generated report for %d records from %s to %s", 
+                result.getRecordCount(), key.getStartDate(), key.getEndDate()));
+        }
+        return response;
+    }
+    
+    // Headline for a comparison: the overall change of the first period against the second
+    private static String comparisonMessage(QueryKey key, QueryResult result) {
+        List<DateRange> periods = key.getPeriods();
+        BigDecimal first = BigDecimal.ZERO;
+        BigDecimal second = BigDecimal.ZERO;
+        for (SalesComparison group : result.getComparison()) {
+            first = first.add(group.getTotalRevenues()[0]);
+            second = second.add(group.getTotalRevenues()[1]);
+        }
+        String growth = second.signum() == 0 ? "no sales to compare against"
+            : first.subtract(second).multiply(BigDecimal.valueOf(100)).divide(second, 1, RoundingMode.HALF_UP) + "%";
+        return String.format("Compared %d periods over %d records: %s to %s revenue %s vs %s to %s revenue %s (%s)",
+            periods.size(), result.getRecordCount(), periods.get(0).getStartDate(), periods.get(0).getEndDate(),
+            first.toPlainString(), periods.get(1).getStartDate(), periods.get(1).getEndDate(), second.toPlainString(),
+            growth);
+    }
+    
+    // "About 1200 distinct customers (1160 to 1240, 95% confidence)" or the exact count
+    private static String distinctMessage(QueryKey key, QueryResult result) {
+        SalesEstimate answer = result.getEstimates().get(0);
+        String subject = plural(key.getDistinctOf());
+        if (!result.isApproximate()) {
+            return String.format("Counted %s distinct %s over %d records from %s to %s", answer.getValue(), subject,
+                result.getRecordCount(), key.getStartDate(), key.getEndDate());
+        }
+        return String.format("About %s distinct %s (%s to %s, %.0f%% confidence) over %d records from %s to %s",
+            answer.getValue(), subject, answer.getLowerBound(), answer.getUpperBound(), answer.getConfidence() * 100,
+            result.getRecordCount(), key.getStartDate(), key.getEndDate());
+    }
+    
+    private static String plural(SalesDimension dimension) {
+        String label = dimension.getLabel().toLowerCase();
+        return label.endsWith("y") ? label.substring(0, label.length() - 1) + "ies" : label + "s";
+    }
+    
+    private QueryResult executeQuery(QueryKey key) {
+        // Distinct counts have no report; approximate top-N answers neither, since sketches keep no row counts
+        if (key.getDistinctOf() != null) {
+            SalesDataFilter filter = filterFor(key);
+            return metrics.time(Stage.AGGREGATE, () -> salesEstimateService.countDistinct(key, filter));
+        }
+        if (key.getTopN() > 0) {
+            SalesDataFilter filter = filterFor(key);
+            QueryResult estimated = metrics.time(Stage.AGGREGATE, () -> salesEstimateService.topFromSketches(key, filter));
+            if (estimated != null) {
+                return estimated;
             }
         }
         
-        for (String keyword : businessKeywords) {
-            if (command.contains(keyword)) {
-                businessMatches++;
-            }
+        if (key.isComparison()) {
+            SalesDataFilter filter = filterFor(key);
+            List<SalesComparison> comparison = metrics.time(Stage.AGGREGATE,
+                () -> salesComparisonService.compare(key.getGroupBy(), filter, key.getPeriods()));
+            String reportUrl = metrics.time(Stage.REPORT,
+                () -> reportGenerationService.generateComparisonReport(comparison, key));
+            long recordCount = comparison.stream().flatMapToLong(group -> Arrays.stream(group.getRecordCounts())).sum();
+            BigDecimal totalAmount = comparison.stream().flatMap(group -> Arrays.stream(group.getTotalRevenues()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            metrics.recordRows(key.getGroupBy(), recordCount);
+            return new QueryResult(null, null, recordCount, totalAmount, reportUrl, comparison);
         }
         
-        for (String keyword : timeKeywords) {
-            if (command.contains(keyword)) {
-                timeMatches++;
+        // Grouped commands ("total sales by region") are answered with database-side aggregates
+        if (key.getGroupBy() != null) {
+            SalesDataFilter filter = filterFor(key);
+            List<SalesSummary> groups = metrics.time(Stage.AGGREGATE, () -> {
+                List<SalesSummary> columnar = columnarSalesEngine.aggregate(key.getGroupBy(), filter);
+                return columnar != null ? columnar : salesRollupService.aggregate(key.getGroupBy(), filter);
+            });
+            long recordCount = groups.stream().mapToLong(SalesSummary::getRecordCount).sum();
+            metrics.recordRows(key.getGroupBy(), recordCount);
+            // Top-N questions keep only the leading groups, but still report how many records were ranked
+            List<SalesSummary> summary = key.getTopN() > 0 ? salesEstimateService.topOf(groups, key.getTopN()) : groups;
+            String reportUrl = metrics.time(Stage.REPORT, () -> reportGenerationService.generateSummaryReport(summary, key));
+            BigDecimal totalAmount = QueryResult.totalRevenue(groups);
+            if (key.getTopN() > 0) {
+                return new QueryResult(null, summary, recordCount, totalAmount, reportUrl, null,
+                    SalesEstimateService.exactEstimates(summary), false);
             }
+            return new QueryResult(null, summary, recordCount, totalAmount, reportUrl);
         }
         
-        // Command is valid if it has at least one report keyword and either business or time context
-        return reportMatches > 0 && (businessMatches > 0 || timeMatches > 0);
+        QueryResult result = metrics.time(Stage.DETAIL, () -> fetchDetail(key));
+        metrics.recordRows(null, result.getRecordCount());
+        return result;
     }
     
-    private List<SalesData> fetchSalesData(LocalDate startDate, LocalDate endDate, String category, String region) {
-        if (category != null && region != null) {
-            // This would need a custom query in repository
-            return salesDataRepository.findBySalesDateBetween(startDate, endDate);
-        } else if (category != null) {
-            return salesDataRepository.findByCategoryAndDateRange(category, startDate, endDate);
-        } else if (region != null) {
-            return salesDataRepository.findByRegionAndDateRange(region, startDate, endDate);
+    // Caps the rows to the request's limit and picks the row or column-oriented JSON shape
+    private void setRows(VoiceCommandResponse response, VoiceCommandRequest request, QueryResult result) {
+        List<SalesRow> rows = result.getSalesData();
+        int limit = request.getLimit() != null ? Math.max(0, Math.min(request.getLimit(), rows.size())) : rows.size();
+        if (limit < rows.size()) {
+            rows = rows.subList(0, limit);
+        }
+        if (VoiceCommandRequest.FORMAT_COLUMNS.equalsIgnoreCase(request.getFormat())) {
+            response.setSalesColumns(SalesColumns.from(rows));
         } else {
-            return salesDataRepository.findSalesDataInDateRange(startDate, endDate);
+            response.setSalesData(rows);
+        }
+        response.setReturnedRows(rows.size());
+        response.setTruncated(rows.size() < result.getRecordCount());
+    }
+    
+    private List<DateRange> extractPeriods(VoiceIntent intent) {
+        LocalDate today = LocalDate.now();
+        List<DateRange> periods = dateExpressionParser.parseComparison(intent, today);
+        return periods != null ? periods : Collections.singletonList(extractDateRange(intent, today));
+    }
+    
+    private DateRange extractDateRange(VoiceIntent intent, LocalDate today) {
+        DateRange dateRange = dateExpressionParser.parse(intent, today);
+        if (dateRange != null) {
+            return dateRange;
         }
+        
+        // Default to last 12 months if no dates found to capture more data
+        return new DateRange(today.minusMonths(12), today);
     }
     
-    private static class DateRange {
-        LocalDate startDate;
-        LocalDate endDate;
+    // Every filter the command named is pushed down into one projection query, newest sales first.
+    // A single pass feeds the workbook and keeps only the leading rows for the response
+    private QueryResult fetchDetail(QueryKey key) {
+        SalesDataFilter filter = filterFor(key);
+        List<SalesRow> leadingRows = new ArrayList<>();
+        long[] matched = {0};
+        BigDecimal[] totalAmount = {BigDecimal.ZERO};
+        String reportUrl = readOnlyTransaction.execute(status -> reportGenerationService.generateReport(
+            salesDataRepository.streamRows(filter, fetchSize).peek(row -> {
+                // An interrupted prefetch stops reading; the half-written report is discarded by ReportStore
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Query for " + key + " was cancelled");
+                }
+                if (matched[0]++ < maxResponseRows) {
+                    leadingRows.add(row);
+                }
+                totalAmount[0] = totalAmount[0].add(row.getTotalAmount());
+            }), key));
+        
+        if (matched[0] == 0) {
+            // An already stored workbook is reused without reading the stream, so the response rows are fetched on
+            // their own, and the totals of a longer match come from one aggregate
+            return readOnlyTransaction.execute(status -> {
+                try (Stream<SalesRow> rows = salesDataRepository.streamRows(filter, fetchSize)) {
+                    List<SalesRow> firstRows = rows.limit(maxResponseRows).toList();
+                    if (firstRows.size() < maxResponseRows) {
+                        BigDecimal total = firstRows.stream().map(SalesRow::getTotalAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                        return new QueryResult(firstRows, null, firstRows.size(), total, reportUrl);
+                    }
+                    SalesComparison totals = salesRollupService.aggregatePeriods(null, filter,
+                        List.of(new DateRange(key.getStartDate(), key.getEndDate()))).get(0);
+                    return new QueryResult(firstRows, null, totals.getRecordCounts()[0], totals.getTotalRevenues()[0],
+                        reportUrl);
+                }
+            });
+        }
+        return new QueryResult(leadingRows, null, matched[0], totalAmount[0], reportUrl);
+    }
+    
+    private SalesDataFilter filterFor(QueryKey key) {
+        return new SalesDataFilter(key.getStartDate(), key.getEndDate())
+            .category(key.getCategory())
+            .region(key.getRegion())
+            .productName(key.getProductName())
+            .customerName(key.getCustomerName());
+    }
+    
+    private static class ResolvedCommand {
+        final String command;
+        final QueryKey key;
+        final VoiceCommandResponse rejection;
+        
+        ResolvedCommand(String command, QueryKey key, VoiceCommandResponse rejection) {
+            this.command = command;
+            this.key = key;
+            this.rejection = rejection;
+        }
         
-        DateRange(LocalDate startDate, LocalDate endDate) {
-            this.startDate = startDate;
-            this.endDate = endDate;
+        static ResolvedCommand rejected(VoiceCommandResponse rejection) {
+            return new ResolvedCommand(null, null, rejection);
         }
     }
 }
@@ -0,0 +1,146 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.VoiceCommandRequest;
+import com.voicepoc.dto.VoiceCommandResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Follows a command while it is still being spoken: each partial transcript is parsed, and once the same
+// query has come out of enough consecutive partials it is run in the background so the final command finds
+// it cached or already running. A prefetch is cancelled as soon as the transcript points at a different query
+@Service
+public class VoicePrefetchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(VoicePrefetchService.class);
+    
+    @Autowired
+    private VoiceCommandService voiceCommandService;
+    
+    @Autowired
+    private VoiceCommandMetrics metrics;
+    
+    @Value("${voice.prefetch.enabled:true}")
+    private boolean enabled = true;
+    
+    // Consecutive partial transcripts that must agree on a query before it is prefetched
+    @Value("${voice.prefetch.stable-partials:2}")
+    private int stablePartials = 2;
+    
+    @Value("${voice.prefetch.threads:2}")
+    private int threads = 2;
+    
+    // Speculative work is dropped rather than queued behind a backlog, where it would arrive too late to help
+    @Value("${voice.prefetch.queue-capacity:8}")
+    private int queueCapacity = 8;
+    
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "voice-prefetch-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    // Returns an interim response naming the filters understood so far when they changed, otherwise null
+    public VoiceCommandResponse onPartial(Session session, VoiceCommandRequest request) {
+        QueryKey key = voiceCommandService.interpret(request);
+        if (key == null) {
+            // Half a phrase often parses as nothing; the last understood query stays in play
+            return null;
+        }
+        boolean changed = !key.equals(session.key);
+        if (changed) {
+            session.key = key;
+            session.agreeingPartials = 1;
+            cancelUnless(session, key);
+        } else {
+            session.agreeingPartials++;
+        }
+        if (enabled && session.agreeingPartials >= stablePartials && session.prefetch == null) {
+            start(session, key);
+        }
+        return changed ? voiceCommandService.preview(request, key) : null;
+    }
+    
+    // The final transcript is processed like any other command and picks up a matching prefetch through the cache
+    public VoiceCommandResponse onFinal(Session session, VoiceCommandRequest request) {
+        QueryKey key = voiceCommandService.interpret(request);
+        if (session.prefetch != null && session.prefetchKey.equals(key)) {
+            metrics.prefetch("used");
+        }
+        cancelUnless(session, key);
+        session.reset();
+        return voiceCommandService.processVoiceCommand(request);
+    }
+    
+    public void close(Session session) {
+        cancelUnless(session, null);
+        session.reset();
+    }
+    
+    private void start(Session session, QueryKey key) {
+        try {
+            session.prefetch = executor.submit(() -> {
+                try {
+                    voiceCommandService.prefetch(key);
+                } catch (RuntimeException e) {
+                    // The final command runs the query again and reports the error itself
+                    log.debug("Prefetch of {} stopped: {}", key, e.getMessage());
+                }
+            });
+            session.prefetchKey = key;
+            metrics.prefetch("scheduled");
+        } catch (RejectedExecutionException e) {
+            metrics.prefetch("dropped");
+        }
+    }
+    
+    // Interrupts the session's prefetch if it is for any query other than the one given
+    private void cancelUnless(Session session, QueryKey key) {
+        if (session.prefetch == null || session.prefetchKey.equals(key)) {
+            return;
+        }
+        if (session.prefetch.cancel(true)) {
+            metrics.prefetch("cancelled");
+        }
+        session.prefetch = null;
+        session.prefetchKey = null;
+    }
+    
+    // Per-connection state; a connection delivers its messages one at a time, so no locking is needed
+    public static class Session {
+        private QueryKey key;
+        private int agreeingPartials;
+        private QueryKey prefetchKey;
+        private Future<?> prefetch;
+        
+        private void reset() {
+            key = null;
+            agreeingPartials = 0;
+            prefetch = null;
+            prefetchKey = null;
+        }
+    }
+}
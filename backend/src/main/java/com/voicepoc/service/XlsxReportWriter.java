@@ -0,0 +1,425 @@
+package com.voicepoc.service;
+
+import com.voicepoc.dto.SalesComparison;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.SalesSummary;
+import com.voicepoc.model.ReportFormat;
+import com.voicepoc.model.ReportMode;
+import com.voicepoc.model.SalesDimension;
+import com.voicepoc.parser.DateRange;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+public class XlsxReportWriter implements SalesReportWriter {
+    
+    private static final String[] HEADERS = {"ID", "Product Name", "Category", "Sales Date", "Quantity", "Unit Price", "Total Amount", "Customer", "Region"};
+    
+    // Excel caps a sheet at 1,048,576 rows; leave room for the header, blank line and summary row
+    private static final int MAX_DATA_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows() - 3;
+    
+    private static final int MAX_COLUMN_CHARS = 60;
+    
+    // Number of rows kept in memory by the streaming workbook; older rows are flushed to a temp file
+    @Value("${report.row-access-window:100}")
+    private int rowAccessWindow = 100;
+    
+    // Column widths are derived from the first N data rows instead of autoSizeColumn over the whole sheet
+    @Value("${report.width-sample-rows:500}")
+    private int widthSampleRows = 500;
+    
+    // Rows on the top products and top customers sheets of summary workbooks
+    @Value("${report.pivot.top-n:20}")
+    private int pivotTopN = 20;
+    
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.XLSX;
+    }
+    
+    @Override
+    public void writeDetail(Stream<SalesRow> rows, QueryKey key, OutputStream out) throws IOException {
+        ReportMode mode = key.getReportMode();
+        writeWorkbook(out, workbook -> {
+            if (!mode.includesSummary()) {
+                writeSalesSheets(workbook, rows.iterator());
+                return;
+            }
+            // One pass: the pivot accumulates while detail rows (if any) are written
+            SalesPivot pivot = new SalesPivot();
+            if (mode.includesDetail()) {
+                writeSalesSheets(workbook, rows.peek(pivot).iterator());
+            } else {
+                rows.forEach(pivot);
+            }
+            writePivotSheets(workbook, pivot, key);
+        });
+    }
+    
+    @Override
+    public void writeSummary(List<SalesSummary> summary, QueryKey key, OutputStream out) throws IOException {
+        writeWorkbook(out, workbook -> writeSummarySheet(workbook, summary, key.getGroupBy()));
+    }
+    
+    @Override
+    public void writeComparison(List<SalesComparison> comparison, QueryKey key, OutputStream out) throws IOException {
+        writeWorkbook(out, workbook -> writeComparisonSheet(workbook, comparison, key));
+    }
+    
+    private void writeWorkbook(OutputStream out, Consumer<SXSSFWorkbook> content) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            content.accept(workbook);
+            workbook.write(out);
+        } finally {
+            // Remove the temp files backing flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+    
+    private void writeSummarySheet(SXSSFWorkbook workbook, List<SalesSummary> summary, SalesDimension groupBy) {
+        SXSSFSheet sheet = workbook.createSheet("Sales by " + groupBy.getLabel());
+        String[] headers = {groupBy.getLabel(), "Records", "Quantity", "Total Amount"};
+        
+        CellStyle headerStyle = createHeaderStyle(workbook);
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        
+        int rowNum = 1;
+        long totalRecords = 0;
+        long totalQuantity = 0;
+        BigDecimal totalSales = BigDecimal.ZERO;
+        int keyWidth = headers[0].length();
+        
+        for (SalesSummary group : summary) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(group.getGroupKey());
+            row.createCell(1).setCellValue(group.getRecordCount());
+            row.createCell(2).setCellValue(group.getTotalQuantity());
+            row.createCell(3).setCellValue(group.getTotalRevenue().doubleValue());
+            
+            totalRecords += group.getRecordCount();
+            totalQuantity += group.getTotalQuantity();
+            totalSales = totalSales.add(group.getTotalRevenue());
+            keyWidth = Math.max(keyWidth, group.getGroupKey().length());
+        }
+        
+        // Add summary row
+        Row summaryRow = sheet.createRow(rowNum + 1);
+        summaryRow.createCell(0).setCellValue("TOTAL");
+        summaryRow.createCell(1).setCellValue(totalRecords);
+        summaryRow.createCell(2).setCellValue(totalQuantity);
+        summaryRow.createCell(3).setCellValue(totalSales.doubleValue());
+        
+        sheet.setColumnWidth(0, Math.min(MAX_COLUMN_CHARS, keyWidth + 2) * 256);
+        for (int i = 1; i < headers.length; i++) {
+            sheet.setColumnWidth(i, 16 * 256);
+        }
+    }
+    
+    // Wide layout: revenue for each period side by side, then change and growth of the first period against each later one
+    private void writeComparisonSheet(SXSSFWorkbook workbook, List<SalesComparison> comparison, QueryKey key) {
+        SXSSFSheet sheet = workbook.createSheet("Comparison");
+        List<DateRange> periods = key.getPeriods();
+        String[] headers = new String[1 + periods.size() + 2 * (periods.size() - 1)];
+        headers[0] = key.getGroupBy() != null ? key.getGroupBy().getLabel() : "Group";
+        for (int p = 0; p < periods.size(); p++) {
+            headers[1 + p] = periods.get(p).getStartDate() + " to " + periods.get(p).getEndDate();
+        }
+        for (int p = 1; p < periods.size(); p++) {
+            headers[periods.size() + 2 * p - 1] = "Change vs " + headers[1 + p];
+            headers[periods.size() + 2 * p] = "Growth vs " + headers[1 + p];
+        }
+        writeHeaderRow(sheet, headers, createHeaderStyle(workbook));
+        
+        CellStyle moneyStyle = workbook.createCellStyle();
+        moneyStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+        CellStyle growthStyle = workbook.createCellStyle();
+        growthStyle.setDataFormat(workbook.createDataFormat().getFormat("0.0%"));
+        
+        int rowNum = 1;
+        int keyWidth = headers[0].length();
+        for (SalesComparison group : comparison) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(group.getGroupKey());
+            int column = 1;
+            for (BigDecimal revenue : group.getTotalRevenues()) {
+                Cell cell = row.createCell(column++);
+                cell.setCellValue(revenue.doubleValue());
+                cell.setCellStyle(moneyStyle);
+            }
+            BigDecimal[] changes = group.getRevenueChanges();
+            BigDecimal[] growth = group.getRevenueGrowthPercents();
+            for (int i = 0; i < changes.length; i++) {
+                Cell change = row.createCell(column++);
+                change.setCellValue(changes[i].doubleValue());
+                change.setCellStyle(moneyStyle);
+                // Left blank when the later period sold nothing
+                Cell percent = row.createCell(column++);
+                if (growth[i] != null) {
+                    percent.setCellValue(growth[i].doubleValue() / 100);
+                    percent.setCellStyle(growthStyle);
+                }
+            }
+            keyWidth = Math.max(keyWidth, group.getGroupKey().length());
+        }
+        
+        sheet.setColumnWidth(0, Math.min(MAX_COLUMN_CHARS, keyWidth + 2) * 256);
+        for (int i = 1; i < headers.length; i++) {
+            sheet.setColumnWidth(i, Math.min(MAX_COLUMN_CHARS, Math.max(16, headers[i].length() + 2)) * 256);
+        }
+    }
+    
+    // Summary sheets are placed in front of any detail sheets and the first one is opened
+    private void writePivotSheets(SXSSFWorkbook workbook, SalesPivot pivot, QueryKey key) {
+        CellStyle headerStyle = createHeaderStyle(workbook);
+        CellStyle moneyStyle = workbook.createCellStyle();
+        moneyStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+        CellStyle shareStyle = workbook.createCellStyle();
+        shareStyle.setDataFormat(workbook.createDataFormat().getFormat("0.0%"));
+        
+        List<SXSSFSheet> sheets = List.of(
+            writeOverviewSheet(workbook, pivot, key, headerStyle, moneyStyle),
+            writeTotalsSheet(workbook, "By Category", "Category", pivot.byCategory(), pivot, headerStyle, moneyStyle, shareStyle),
+            writeTotalsSheet(workbook, "By Region", "Region", pivot.byRegion(), pivot, headerStyle, moneyStyle, shareStyle),
+            writeMonthPivotSheet(workbook, pivot, headerStyle, moneyStyle),
+            writeTotalsSheet(workbook, "Top Products", "Product", pivot.topProducts(pivotTopN), pivot, headerStyle, moneyStyle, shareStyle),
+            writeTotalsSheet(workbook, "Top Customers", "Customer", pivot.topCustomers(pivotTopN), pivot, headerStyle, moneyStyle, shareStyle)
+        );
+        
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            workbook.getSheetAt(i).setSelected(false);
+        }
+        for (int i = 0; i < sheets.size(); i++) {
+            workbook.setSheetOrder(sheets.get(i).getSheetName(), i);
+        }
+        workbook.setActiveSheet(0);
+        sheets.get(0).setSelected(true);
+    }
+    
+    private SXSSFSheet writeOverviewSheet(SXSSFWorkbook workbook, SalesPivot pivot, QueryKey key,
+                                          CellStyle headerStyle, CellStyle moneyStyle) {
+        SXSSFSheet sheet = workbook.createSheet("Summary");
+        SalesPivot.Totals total = pivot.getTotal();
+        Object[][] lines = {
+            {"Period", key.getStartDate() + " to " + key.getEndDate()},
+            {"Category", key.getCategory() != null ? key.getCategory() : "All"},
+            {"Region", key.getRegion() != null ? key.getRegion() : "All"},
+            {"Product", key.getProductName() != null ? key.getProductName() : "All"},
+            {"Customer", key.getCustomerName() != null ? key.getCustomerName() : "All"},
+            {"Records", total.getRecords()},
+            {"Quantity", total.getQuantity()},
+            {"Total Amount", centsToDouble(total.getRevenueCents())},
+            {"Average Sale", total.getRecords() == 0 ? 0.0 : centsToDouble(total.getRevenueCents()) / total.getRecords()}
+        };
+        for (int i = 0; i < lines.length; i++) {
+            Row row = sheet.createRow(i);
+            Cell label = row.createCell(0);
+            label.setCellValue((String) lines[i][0]);
+            label.setCellStyle(headerStyle);
+            Cell value = row.createCell(1);
+            if (lines[i][1] instanceof String text) {
+                value.setCellValue(text);
+            } else if (lines[i][1] instanceof Long count) {
+                value.setCellValue(count);
+            } else {
+                value.setCellValue((Double) lines[i][1]);
+                value.setCellStyle(moneyStyle);
+            }
+        }
+        sheet.setColumnWidth(0, 16 * 256);
+        sheet.setColumnWidth(1, 28 * 256);
+        return sheet;
+    }
+    
+    private SXSSFSheet writeTotalsSheet(SXSSFWorkbook workbook, String name, String label,
+                                        List<Map.Entry<String, SalesPivot.Totals>> groups, SalesPivot pivot,
+                                        CellStyle headerStyle, CellStyle moneyStyle, CellStyle shareStyle) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        String[] headers = {label, "Records", "Quantity", "Total Amount", "Share"};
+        writeHeaderRow(sheet, headers, headerStyle);
+        
+        long totalCents = pivot.getTotal().getRevenueCents();
+        int rowNum = 1;
+        int keyWidth = label.length();
+        for (Map.Entry<String, SalesPivot.Totals> group : groups) {
+            SalesPivot.Totals totals = group.getValue();
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(group.getKey());
+            row.createCell(1).setCellValue(totals.getRecords());
+            row.createCell(2).setCellValue(totals.getQuantity());
+            Cell amount = row.createCell(3);
+            amount.setCellValue(centsToDouble(totals.getRevenueCents()));
+            amount.setCellStyle(moneyStyle);
+            Cell share = row.createCell(4);
+            share.setCellValue(totalCents == 0 ? 0.0 : (double) totals.getRevenueCents() / totalCents);
+            share.setCellStyle(shareStyle);
+            keyWidth = Math.max(keyWidth, group.getKey() != null ? group.getKey().length() : 0);
+        }
+        
+        sheet.setColumnWidth(0, Math.min(MAX_COLUMN_CHARS, keyWidth + 2) * 256);
+        for (int i = 1; i < headers.length; i++) {
+            sheet.setColumnWidth(i, 16 * 256);
+        }
+        return sheet;
+    }
+    
+    // Month rows against category columns of revenue, the layout users used to build by hand
+    private SXSSFSheet writeMonthPivotSheet(SXSSFWorkbook workbook, SalesPivot pivot,
+                                            CellStyle headerStyle, CellStyle moneyStyle) {
+        SXSSFSheet sheet = workbook.createSheet("Month by Category");
+        List<String> categories = pivot.categories();
+        String[] headers = new String[categories.size() + 2];
+        headers[0] = "Month";
+        for (int i = 0; i < categories.size(); i++) {
+            headers[i + 1] = categories.get(i);
+        }
+        headers[headers.length - 1] = "Total";
+        writeHeaderRow(sheet, headers, headerStyle);
+        
+        int rowNum = 1;
+        for (String month : pivot.months()) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(month);
+            long monthCents = 0;
+            for (int i = 0; i < categories.size(); i++) {
+                long cents = pivot.monthRevenueCents(month, categories.get(i));
+                monthCents += cents;
+                Cell cell = row.createCell(i + 1);
+                cell.setCellValue(centsToDouble(cents));
+                cell.setCellStyle(moneyStyle);
+            }
+            Cell total = row.createCell(headers.length - 1);
+            total.setCellValue(centsToDouble(monthCents));
+            total.setCellStyle(moneyStyle);
+        }
+        
+        sheet.setColumnWidth(0, 10 * 256);
+        for (int i = 1; i < headers.length; i++) {
+            int headerChars = headers[i] != null ? headers[i].length() + 2 : 0;
+            sheet.setColumnWidth(i, Math.min(MAX_COLUMN_CHARS, Math.max(16, headerChars)) * 256);
+        }
+        return sheet;
+    }
+    
+    private void writeHeaderRow(Sheet sheet, String[] headers, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+    
+    private static double centsToDouble(long cents) {
+        return cents / 100.0;
+    }
+    
+    private void writeSalesSheets(SXSSFWorkbook workbook, Iterator<SalesRow> rows) {
+        CellStyle headerStyle = createHeaderStyle(workbook);
+        int[] sampledWidths = new int[HEADERS.length];
+        int sampledRows = 0;
+        
+        int sheetIndex = 1;
+        SXSSFSheet sheet = createSalesSheet(workbook, "Sales Report", headerStyle);
+        int rowNum = 1;
+        BigDecimal totalSales = BigDecimal.ZERO;
+        
+        while (rows.hasNext()) {
+            if (rowNum > MAX_DATA_ROWS_PER_SHEET) {
+                // Roll over to a continuation sheet once the current one is full
+                applyColumnWidths(sheet, sampledWidths);
+                sheet = createSalesSheet(workbook, "Sales Report (" + (++sheetIndex) + ")", headerStyle);
+                rowNum = 1;
+            }
+            
+            SalesRow data = rows.next();
+            Row row = sheet.createRow(rowNum++);
+            
+            row.createCell(0).setCellValue(data.getId());
+            row.createCell(1).setCellValue(data.getProductName());
+            row.createCell(2).setCellValue(data.getCategory());
+            row.createCell(3).setCellValue(data.getSalesDate().toString());
+            row.createCell(4).setCellValue(data.getQuantity());
+            row.createCell(5).setCellValue(data.getUnitPrice().doubleValue());
+            row.createCell(6).setCellValue(data.getTotalAmount().doubleValue());
+            row.createCell(7).setCellValue(data.getCustomerName());
+            row.createCell(8).setCellValue(data.getRegion());
+            
+            if (sampledRows < widthSampleRows) {
+                sampleWidths(row, sampledWidths);
+                sampledRows++;
+            }
+            
+            totalSales = totalSales.add(data.getTotalAmount());
+        }
+        
+        // Add summary row to the last sheet
+        Row summaryRow = sheet.createRow(rowNum + 1);
+        summaryRow.createCell(0).setCellValue("SUMMARY");
+        summaryRow.createCell(5).setCellValue("Total Sales:");
+        summaryRow.createCell(6).setCellValue(totalSales.doubleValue());
+        
+        applyColumnWidths(sheet, sampledWidths);
+    }
+    
+    private SXSSFSheet createSalesSheet(SXSSFWorkbook workbook, String name, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        
+        // Create header row
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+    
+    private CellStyle createHeaderStyle(Workbook workbook) {
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return headerStyle;
+    }
+    
+    private void sampleWidths(Row row, int[] widths) {
+        for (int i = 0; i < widths.length; i++) {
+            Cell cell = row.getCell(i);
+            int length = cell.getCellType() == CellType.NUMERIC
+                ? Double.toString(cell.getNumericCellValue()).length()
+                : cell.getStringCellValue().length();
+            widths[i] = Math.max(widths[i], length);
+        }
+    }
+    
+    private void applyColumnWidths(Sheet sheet, int[] sampledWidths) {
+        for (int i = 0; i < HEADERS.length; i++) {
+            int chars = Math.min(MAX_COLUMN_CHARS, Math.max(HEADERS[i].length(), sampledWidths[i]) + 2);
+            // Width is expressed in 1/256th of a character
+            sheet.setColumnWidth(i, chars * 256);
+        }
+    }
+}
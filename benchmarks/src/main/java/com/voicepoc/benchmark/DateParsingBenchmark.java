@@ -0,0 +1,62 @@
+package com.voicepoc.benchmark;
+
+import com.voicepoc.parser.DateExpressionParser;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.parser.IntentParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Per-command cost of date extraction: the legacy split/ofPattern/exception loop versus DateExpressionParser
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+    
+    @Param({
+        "generate report for electronics category",
+        "create report 01/15/2024 to 03/31/2024",
+        "show sales data from january to march 2024",
+        "generate report from january 1st 2024 to march 31st 2024",
+        "total electronics sales by region last quarter"
+    })
+    private String command;
+    
+    private String normalized;
+    private IntentParser intentParser;
+    private DateExpressionParser dateExpressionParser;
+    private LocalDate today;
+    
+    @Setup
+    public void setUp() {
+        normalized = command.toLowerCase().trim();
+        intentParser = VoiceCommandBenchmark.parserWithDimensions();
+        dateExpressionParser = new DateExpressionParser();
+        today = LocalDate.now();
+    }
+    
+    @Benchmark
+    public LocalDate[] legacyExtractDateRange() {
+        return LegacyDateParsing.extractDateRange(normalized);
+    }
+    
+    // Includes tokenizing and keyword matching, which the engine needs and the legacy path does not
+    @Benchmark
+    public DateRange dateExpressionParser() {
+        return dateExpressionParser.parse(intentParser.parse(command), today);
+    }
+}
@@ -0,0 +1,36 @@
+package com.voicepoc.benchmark;
+
+import com.voicepoc.VoiceReportPocApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the backend without a web server against an in-memory H2 database in PostgreSQL mode,
+// so benchmarks exercise the real services and repositories without an external PostgreSQL
+final class EmbeddedBackend {
+    
+    private EmbeddedBackend() {}
+    
+    static ConfigurableApplicationContext start(String databaseName, String... extraProperties) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.datasource.url=jdbc:h2:mem:" + databaseName
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN"
+        ));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        SpringApplication application = new SpringApplication(VoiceReportPocApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(args.toArray(new String[0]));
+    }
+}
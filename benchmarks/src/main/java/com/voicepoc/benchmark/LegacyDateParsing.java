@@ -0,0 +1,83 @@
+package com.voicepoc.benchmark;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Verbatim copy of the date extraction VoiceCommandService used before DateExpressionParser, kept as the baseline
+final class LegacyDateParsing {
+    
+    private static final Pattern MONTH_YEAR_PATTERN = Pattern.compile(
+        "(january|february|march|april|may|june|july|august|september|october|november|december)\\s+(\\d{4})"
+    );
+    
+    private LegacyDateParsing() {}
+    
+    static LocalDate[] extractDateRange(String command) {
+        // Try to extract explicit date ranges
+        String[] dateKeywords = {"from", "between", "to", "until", "till"};
+        
+        for (String keyword : dateKeywords) {
+            if (command.contains(keyword)) {
+                String[] parts = command.split(keyword);
+                if (parts.length >= 2) {
+                    LocalDate startDate = parseDate(parts[0].trim());
+                    LocalDate endDate = parseDate(parts[1].trim());
+                    
+                    if (startDate != null && endDate != null) {
+                        return new LocalDate[] {startDate, endDate};
+                    }
+                }
+            }
+        }
+        
+        // Try to extract month-year patterns
+        Matcher monthMatcher = MONTH_YEAR_PATTERN.matcher(command);
+        if (monthMatcher.find()) {
+            String month = monthMatcher.group(1);
+            int year = Integer.parseInt(monthMatcher.group(2));
+            
+            LocalDate startDate = LocalDate.of(year, Month.valueOf(month.toUpperCase()), 1);
+            LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+            
+            return new LocalDate[] {startDate, endDate};
+        }
+        
+        // Default to last 12 months if no dates found to capture more data
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusMonths(12);
+        
+        return new LocalDate[] {startDate, endDate};
+    }
+    
+    private static LocalDate parseDate(String dateStr) {
+        if (dateStr == null || dateStr.trim().isEmpty()) {
+            return null;
+        }
+        
+        // Remove common words
+        dateStr = dateStr.replaceAll("\\b(st|nd|rd|th)\\b", "");
+        dateStr = dateStr.trim();
+        
+        // Try different date formats
+        String[] formats = {
+            "MM/dd/yyyy", "dd/MM/yyyy", "yyyy-MM-dd",
+            "MM-dd-yyyy", "dd-MM-yyyy", "M/d/yyyy",
+            "d/M/yyyy", "MMM d, yyyy", "d MMM yyyy"
+        };
+        
+        for (String format : formats) {
+            try {
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+                return LocalDate.parse(dateStr, formatter);
+            } catch (DateTimeParseException e) {
+                // Continue to next format
+            }
+        }
+        
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.voicepoc.benchmark;
+
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.service.QueryKey;
+import com.voicepoc.service.ReportGenerationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Detail workbook generation at 1k, 100k and 1M rows. Rows are synthesised lazily in the shape the
+// projection query returns, so the measurement is the streaming writer rather than heap pressure from a prebuilt list
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportGenerationBenchmark {
+    
+    private static final String[] PRODUCTS = {"Laptop", "Smartphone", "Office Chair", "Running Shoes", "Novel", "Desk Lamp"};
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Books", "Furniture", "Sports"};
+    private static final String[] REGIONS = {"North", "South", "East", "West", "Central"};
+    private static final String[] CUSTOMERS = {"John Smith", "Jane Doe", "Bob Johnson", "Alice Brown", "Charlie Wilson"};
+    
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+    
+    private ConfigurableApplicationContext context;
+    private ReportGenerationService reportGenerationService;
+    private Path reportDir;
+    private long invocation;
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        reportDir = Files.createTempDirectory("report-benchmark");
+        context = EmbeddedBackend.start("report_benchmark", "sales.seed.rows=0", "report.dir=" + reportDir);
+        reportGenerationService = context.getBean(ReportGenerationService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        deleteReports();
+        Files.deleteIfExists(reportDir);
+    }
+    
+    // Workbooks from the last iteration are removed so the disk does not fill up at 1M rows
+    @TearDown(Level.Iteration)
+    public void deleteReports() throws IOException {
+        try (Stream<Path> files = Files.list(reportDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public String generateReport() {
+        // A distinct key per call, otherwise the content-addressed store would return the first file
+        QueryKey key = new QueryKey(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+            "run-" + invocation++, null, null);
+        return reportGenerationService.generateReport(rows(rows), key);
+    }
+    
+    private static Stream<SalesRow> rows(int count) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        long[] id = {0};
+        return Stream.generate(() -> {
+            int quantity = 1 + random.nextInt(10);
+            BigDecimal unitPrice = BigDecimal.valueOf(1000 + random.nextInt(99_000), 2);
+            return new SalesRow(++id[0],
+                PRODUCTS[random.nextInt(PRODUCTS.length)],
+                CATEGORIES[random.nextInt(CATEGORIES.length)],
+                start.plusDays(random.nextInt(366)),
+                quantity,
+                unitPrice,
+                unitPrice.multiply(BigDecimal.valueOf(quantity)),
+                CUSTOMERS[random.nextInt(CUSTOMERS.length)],
+                REGIONS[random.nextInt(REGIONS.length)]);
+        }).limit(count);
+    }
+}
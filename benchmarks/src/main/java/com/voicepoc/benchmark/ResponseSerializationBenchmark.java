@@ -0,0 +1,79 @@
+package com.voicepoc.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voicepoc.dto.SalesColumns;
+import com.voicepoc.dto.SalesRow;
+import com.voicepoc.dto.VoiceCommandResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JSON encoding of a detail VoiceCommandResponse, as row objects and in the dictionary-encoded column form.
+// The column variant includes building SalesColumns, since the service does that per response
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    
+    @Param({"100", "1000"})
+    private int rows;
+    
+    @Param({"rows", "columns"})
+    private String format;
+    
+    private ObjectMapper objectMapper;
+    private List<SalesRow> salesRows;
+    
+    @Setup
+    public void setUp() {
+        // Same builder Spring Boot uses for its MVC ObjectMapper, so dates and modules match production
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(42);
+        String[] categories = {"Electronics", "Clothing", "Books", "Furniture", "Sports"};
+        String[] regions = {"North", "South", "East", "West", "Central"};
+        salesRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int quantity = 1 + random.nextInt(10);
+            BigDecimal unitPrice = BigDecimal.valueOf(1000 + random.nextInt(99_000), 2);
+            salesRows.add(new SalesRow((long) i, "Product " + random.nextInt(50), categories[random.nextInt(5)],
+                LocalDate.of(2024, 1, 1).plusDays(i / 40), quantity, unitPrice,
+                unitPrice.multiply(BigDecimal.valueOf(quantity)), "Customer " + random.nextInt(15),
+                regions[random.nextInt(5)]));
+        }
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        VoiceCommandResponse response = new VoiceCommandResponse(true, "Generated report for " + rows + " records");
+        response.setStartDate(LocalDate.of(2024, 1, 1));
+        response.setEndDate(LocalDate.of(2024, 12, 31));
+        response.setReportUrl("reports/sales_report_0123456789abcdef.xlsx");
+        if ("columns".equals(format)) {
+            response.setSalesColumns(SalesColumns.from(salesRows));
+        } else {
+            response.setSalesData(salesRows);
+        }
+        response.setReturnedRows(rows);
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
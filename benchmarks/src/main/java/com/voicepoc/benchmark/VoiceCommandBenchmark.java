@@ -0,0 +1,149 @@
+package com.voicepoc.benchmark;
+
+import com.voicepoc.dto.VoiceCommandRequest;
+import com.voicepoc.dto.VoiceCommandResponse;
+import com.voicepoc.parser.DateExpressionParser;
+import com.voicepoc.parser.DateRange;
+import com.voicepoc.parser.DimensionIndex;
+import com.voicepoc.parser.IntentParser;
+import com.voicepoc.parser.KeywordType;
+import com.voicepoc.parser.VoiceIntent;
+import com.voicepoc.service.QueryResultCache;
+import com.voicepoc.service.VoiceCommandService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Voice command handling over a corpus of realistic utterances: the parsing front end on its own,
+// and the full VoiceCommandService path against an embedded database with and without the result cache
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoiceCommandBenchmark {
+    
+    static final String[] CORPUS = loadCorpus();
+    
+    // Seed-data dimension values, standing in for what DimensionDictionary loads from sales_data
+    static final DimensionIndex DIMENSIONS = DimensionIndex.builder()
+        .addAll(KeywordType.CATEGORY, List.of("Electronics", "Clothing", "Books", "Furniture", "Sports"))
+        .addAll(KeywordType.REGION, List.of("North", "South", "East", "West", "Central"))
+        .addAll(KeywordType.PRODUCT, List.of("Laptop Pro 15", "Smartphone X", "Wireless Headphones", "Yoga Mat",
+            "Running Shoes", "Tennis Racket", "Desk Wooden", "Chair Office"))
+        .addAll(KeywordType.CUSTOMER, List.of("John Smith", "Emma Johnson", "Michael Brown", "Sarah Davis",
+            "David Wilson", "Lisa Anderson"))
+        .reserve(new IntentParser().getVocabularyWords())
+        .build();
+    
+    @State(Scope.Benchmark)
+    public static class Parsers {
+        IntentParser intentParser = parserWithDimensions();
+        DateExpressionParser dateExpressionParser = new DateExpressionParser();
+        LocalDate today = LocalDate.now();
+    }
+    
+    static IntentParser parserWithDimensions() {
+        IntentParser parser = new IntentParser();
+        parser.setDimensions(DIMENSIONS);
+        return parser;
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Backend {
+        
+        @Param({"100000"})
+        int rows;
+        
+        ConfigurableApplicationContext context;
+        VoiceCommandService service;
+        QueryResultCache cache;
+        
+        @Setup(Level.Trial)
+        public void start() {
+            context = EmbeddedBackend.start("voice_command_benchmark", "sales.seed.rows=" + rows,
+                "report.dir=" + System.getProperty("java.io.tmpdir") + "/voice-benchmark-reports");
+            service = context.getBean(VoiceCommandService.class);
+            cache = context.getBean(QueryResultCache.class);
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Uncached {
+        
+        @Setup(Level.Invocation)
+        public void clear(Backend backend) {
+            backend.cache.clear();
+        }
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void parseCorpus(Parsers parsers, Blackhole blackhole) {
+        for (String utterance : CORPUS) {
+            VoiceIntent intent = parsers.intentParser.parse(utterance);
+            DateRange range = parsers.dateExpressionParser.parse(intent, parsers.today);
+            blackhole.consume(intent);
+            blackhole.consume(range);
+        }
+    }
+    
+    // Every command repeats, so this is the steady state for popular questions
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void processCorpusCached(Backend backend, Blackhole blackhole) {
+        for (String utterance : CORPUS) {
+            blackhole.consume(backend.service.processVoiceCommand(new VoiceCommandRequest(utterance)));
+        }
+    }
+    
+    // Queries run every time; report files are content-addressed, so workbooks are written once and then reused
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void processCorpusUncached(Backend backend, Uncached uncached, Blackhole blackhole) {
+        for (String utterance : CORPUS) {
+            VoiceCommandResponse response = backend.service.processVoiceCommand(new VoiceCommandRequest(utterance));
+            blackhole.consume(response);
+        }
+    }
+    
+    private static String[] loadCorpus() {
+        try (InputStream in = VoiceCommandBenchmark.class.getResourceAsStream("/utterances.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("utterances.txt missing from the benchmark classpath");
+            }
+            List<String> lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+            return lines.toArray(new String[0]);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
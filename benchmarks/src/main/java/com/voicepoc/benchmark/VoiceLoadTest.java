@@ -0,0 +1,155 @@
+package com.voicepoc.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Closed-loop load against a running backend: each of --concurrency clients posts the next corpus command
+// as soon as its previous one returns. Run it once against the default pools and once against
+// --spring.profiles.active=virtual-threads to compare throughput and tail latency at the same concurrency.
+//
+//   java -cp target/benchmarks.jar com.voicepoc.benchmark.VoiceLoadTest --concurrency=400 --duration=60
+public class VoiceLoadTest {
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080") + "/api/voice/process";
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "10")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "30")));
+        
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        String[] bodies = Arrays.stream(VoiceCommandBenchmark.CORPUS)
+            .map(command -> "{\"command\":\"" + command.replace("\"", "\\\"") + "\"}")
+            .toArray(String[]::new);
+        
+        System.out.printf("%d clients against %s, %d s warmup, %d s measured%n", concurrency, url,
+            TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+        
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<ClientStats>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            int offset = i;
+            futures.add(clients.submit(() -> runClient(client, url, bodies, offset, measureFrom, end)));
+        }
+        
+        ClientStats total = new ClientStats();
+        for (Future<ClientStats> future : futures) {
+            total.merge(future.get());
+        }
+        clients.shutdown();
+        report(total, durationNanos);
+    }
+    
+    private static ClientStats runClient(HttpClient client, String url, String[] bodies, int offset,
+                                         long measureFrom, long end) {
+        ClientStats stats = new ClientStats();
+        int next = offset;
+        while (true) {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                return stats;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(bodies[next++ % bodies.length]))
+                .build();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long finished = System.nanoTime();
+            if (sent >= measureFrom && finished <= end) {
+                stats.record(status, finished - sent);
+            }
+        }
+    }
+    
+    private static void report(ClientStats stats, long durationNanos) {
+        long[] latencies = Arrays.copyOf(stats.latencies, stats.count);
+        Arrays.sort(latencies);
+        double seconds = durationNanos / 1e9;
+        System.out.printf("requests: %d (%.1f/s), ok: %d, 503: %d, other: %d, failed: %d%n",
+            stats.count, stats.ok / seconds, stats.ok, stats.unavailable, stats.other, stats.failed);
+        if (latencies.length > 0) {
+            System.out.printf("latency ms  p50: %.1f  p90: %.1f  p99: %.1f  max: %.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6);
+        }
+    }
+    
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+    
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+    
+    private static class ClientStats {
+        long[] latencies = new long[1024];
+        int count;
+        long ok;
+        long unavailable;
+        long other;
+        long failed;
+        
+        void record(int status, long nanos) {
+            add(nanos);
+            if (status >= 200 && status < 300) {
+                ok++;
+            } else if (status == 503) {
+                unavailable++;
+            } else if (status < 0) {
+                failed++;
+            } else {
+                other++;
+            }
+        }
+        
+        void merge(ClientStats other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i]);
+            }
+            ok += other.ok;
+            unavailable += other.unavailable;
+            this.other += other.other;
+            failed += other.failed;
+        }
+        
+        private void add(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
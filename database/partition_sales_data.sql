@@ -0,0 +1,80 @@
+-- Converts an existing flat sales_data table into the monthly partitioned layout of setup.sql.
+-- Run once with the application stopped:
+--   psql -d voice_report_poc -f database/partition_sales_data.sql
+-- Rows are copied in a single transaction, so allow for roughly twice the table's size in free disk.
+
+BEGIN;
+
+ALTER TABLE sales_data RENAME TO sales_data_flat;
+
+-- Index names are schema-wide; free them for the partitioned table
+DROP INDEX IF EXISTS idx_sales_data_date;
+DROP INDEX IF EXISTS idx_sales_data_category;
+DROP INDEX IF EXISTS idx_sales_data_region;
+DROP INDEX IF EXISTS idx_sales_data_date_range;
+DROP INDEX IF EXISTS idx_sales_data_date_id;
+
+CREATE TABLE sales_data (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_name VARCHAR(255) NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    sales_date DATE NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    region VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Set by the application on every insert and update; stored reports are versioned by it
+    updated_at TIMESTAMP,
+    PRIMARY KEY (id, sales_date)
+) PARTITION BY RANGE (sales_date);
+
+CREATE TABLE sales_data_default PARTITION OF sales_data DEFAULT;
+
+-- One partition per month from the oldest sale to three months ahead, named sales_data_pYYYY_MM
+DO $$
+DECLARE
+    partition_start DATE;
+    last_start DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(sales_date), CURRENT_DATE))::date,
+           (date_trunc('month', GREATEST(COALESCE(MAX(sales_date), CURRENT_DATE), CURRENT_DATE)) + INTERVAL '3 months')::date
+      INTO partition_start, last_start
+      FROM sales_data_flat;
+    WHILE partition_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF sales_data FOR VALUES FROM (%L) TO (%L)',
+            'sales_data_p' || to_char(partition_start, 'YYYY_MM'), partition_start, (partition_start + INTERVAL '1 month')::date);
+        partition_start := (partition_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Tables created by Hibernate have no created_at column, and older ones no updated_at; those rows take the default
+DO $$
+DECLARE
+    column_list TEXT := 'id, product_name, category, sales_date, quantity, unit_price, total_amount, customer_name, region';
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'sales_data_flat' AND column_name = 'created_at') THEN
+        column_list := column_list || ', created_at';
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'sales_data_flat' AND column_name = 'updated_at') THEN
+        column_list := column_list || ', updated_at';
+    END IF;
+    EXECUTE format('INSERT INTO sales_data (%s) SELECT %s FROM sales_data_flat', column_list, column_list);
+END $$;
+
+SELECT setval(pg_get_serial_sequence('sales_data', 'id'), COALESCE((SELECT MAX(id) FROM sales_data), 0) + 1, false);
+
+CREATE INDEX idx_sales_data_date ON sales_data(sales_date);
+CREATE INDEX idx_sales_data_category ON sales_data(category);
+CREATE INDEX idx_sales_data_region ON sales_data(region);
+CREATE INDEX idx_sales_data_date_range ON sales_data(sales_date, category, region);
+CREATE INDEX idx_sales_data_date_id ON sales_data(sales_date, id);
+
+DROP TABLE sales_data_flat;
+
+COMMIT;
+
+ANALYZE sales_data;
@@ -11,9 +11,12 @@ CREATE DATABASE voice_report_poc;
 -- Connect to the database
 \c voice_report_poc;
 
--- Create the sales_data table
+-- Create the sales_data table, partitioned by month of sales_date so date-range queries only
+-- touch the months they cover. The primary key has to include the partition key.
+-- SalesPartitionService creates upcoming months, moves stray rows out of the default partition
+-- and archives expired months; database/partition_sales_data.sql converts an existing flat table.
 CREATE TABLE IF NOT EXISTS sales_data (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
     product_name VARCHAR(255) NOT NULL,
     category VARCHAR(100) NOT NULL,
     sales_date DATE NOT NULL,
@@ -22,14 +25,43 @@ CREATE TABLE IF NOT EXISTS sales_data (
     total_amount DECIMAL(10, 2) NOT NULL,
     customer_name VARCHAR(255) NOT NULL,
     region VARCHAR(100) NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Set by the application on every insert and update; stored reports are versioned by it
+    updated_at TIMESTAMP,
+    PRIMARY KEY (id, sales_date)
+) PARTITION BY RANGE (sales_date);
+
+-- Databases created before updated_at existed
+ALTER TABLE sales_data ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+
+-- Catches rows for months that have no partition yet
+CREATE TABLE IF NOT EXISTS sales_data_default PARTITION OF sales_data DEFAULT;
 
--- Create indexes for better performance
+-- Indexes are declared once on the parent and created on every partition
 CREATE INDEX IF NOT EXISTS idx_sales_data_date ON sales_data(sales_date);
 CREATE INDEX IF NOT EXISTS idx_sales_data_category ON sales_data(category);
 CREATE INDEX IF NOT EXISTS idx_sales_data_region ON sales_data(region);
 CREATE INDEX IF NOT EXISTS idx_sales_data_date_range ON sales_data(sales_date, category, region);
+CREATE INDEX IF NOT EXISTS idx_sales_data_date_id ON sales_data(sales_date, id);
+
+-- Daily pre-aggregates, rebuilt per changed day by the application
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sales_day DATE NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    region VARCHAR(100) NOT NULL,
+    record_count BIGINT NOT NULL,
+    total_quantity BIGINT NOT NULL,
+    total_revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (sales_day, category, region)
+);
+
+-- CSV files imported by the application, so the same file is never loaded twice
+CREATE TABLE IF NOT EXISTS sales_imports (
+    checksum VARCHAR(64) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    row_count BIGINT NOT NULL,
+    imported_at TIMESTAMP NOT NULL
+);
 
 -- Grant permissions (if using separate user)
 -- GRANT ALL PRIVILEGES ON ALL TABLES IN SCHEMA public TO voice_user;
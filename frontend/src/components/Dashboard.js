@@ -40,8 +40,7 @@ const Dashboard = () => {
   const fetchSalesData = async () => {
     try {
       setLoading(true);
-      const response = await salesApi.getAllSalesData();
-      setSalesData(response.data);
+      setSalesData(await salesApi.getAllSalesData());
     } catch (error) {
       console.error('Error fetching sales data:', error);
       setError('Failed to fetch sales data');
@@ -44,10 +44,6 @@ const ReportHistory = ({ reports }) => {
     }).format(amount);
   };
 
-  const getTotalSales = (salesData) => {
-    return salesData.reduce((total, item) => total + parseFloat(item.totalAmount), 0);
-  };
-
   return (
     <Box>
       <Typography variant="h5" gutterBottom>
@@ -99,7 +95,7 @@ const ReportHistory = ({ reports }) => {
                           Records Found
                         </Typography>
                         <Typography variant="body2">
-                          {report.salesData?.length || 0} sales records
+                          {report.recordCount || 0} sales records
                         </Typography>
                       </Box>
                     </Box>
@@ -138,16 +134,16 @@ const ReportHistory = ({ reports }) => {
                   )}
                 </Grid>
 
-                {report.salesData && report.salesData.length > 0 && (
+                {report.totalAmount != null && report.recordCount > 0 && (
                   <Box sx={{ mb: 2 }}>
                     <Typography variant="subtitle2" gutterBottom>
                       Summary:
                     </Typography>
                     <Typography variant="body2">
-                      Total Sales: <strong>{formatCurrency(getTotalSales(report.salesData))}</strong>
+                      Total Sales: <strong>{formatCurrency(report.totalAmount)}</strong>
                     </Typography>
                     <Typography variant="body2">
-                      Average Order Value: <strong>{formatCurrency(getTotalSales(report.salesData) / report.salesData.length)}</strong>
+                      Average Order Value: <strong>{formatCurrency(report.totalAmount / report.recordCount)}</strong>
                     </Typography>
                   </Box>
                 )}
@@ -50,12 +50,13 @@ const SalesDataTable = () => {
       if (startDate && endDate) {
         data = await salesApi.getSalesDataByDateRange(startDate, endDate);
       } else if (filterCategory) {
-        data = await salesApi.getSalesDataByCategory(filterCategory);
+        const response = await salesApi.getSalesDataByCategory(filterCategory);
+        data = response.data;
       } else {
         data = await salesApi.getAllSalesData();
       }
       
-      setSalesData(data.data);
+      setSalesData(data);
     } catch (error) {
       console.error('Error fetching sales data:', error);
       setError('Failed to fetch sales data');
@@ -21,7 +21,7 @@ import {
   Download,
   Refresh
 } from '@mui/icons-material';
-import { voiceApi } from '../services/api';
+import { voiceApi, openTranscriptStream } from '../services/api';
 
 const VoiceRecorder = ({ onReportGenerated }) => {
   const [isRecording, setIsRecording] = useState(false);
@@ -33,6 +33,7 @@ const VoiceRecorder = ({ onReportGenerated }) => {
   const [isSupported, setIsSupported] = useState(false);
   
   const recognitionRef = useRef(null);
+  const streamRef = useRef(null);
   const synthRef = useRef(window.speechSynthesis);
 
   useEffect(() => {
@@ -63,6 +64,7 @@ const VoiceRecorder = ({ onReportGenerated }) => {
         }
 
         setTranscript(finalTranscript + interimTranscript);
+        sendTranscript(finalTranscript + interimTranscript, false);
       };
 
       recognitionRef.current.onerror = (event) => {
@@ -73,7 +75,15 @@ const VoiceRecorder = ({ onReportGenerated }) => {
 
       recognitionRef.current.onend = () => {
         setIsRecording(false);
-        if (transcript.trim()) {
+        if (!transcript.trim()) {
+          closeStream();
+        } else if (streamRef.current?.readyState === WebSocket.OPEN) {
+          // The backend has usually started this query already from the partial transcripts
+          setIsProcessing(true);
+          setLastCommand(transcript);
+          sendTranscript(transcript, true);
+        } else {
+          closeStream();
           processVoiceCommand(transcript);
         }
       };
@@ -88,6 +98,8 @@ const VoiceRecorder = ({ onReportGenerated }) => {
       setTranscript('');
       setResponse(null);
       setIsRecording(true);
+      closeStream();
+      streamRef.current = openTranscriptStream(handleStreamEvent);
       recognitionRef.current.start();
     }
   };
@@ -107,6 +119,39 @@ const VoiceRecorder = ({ onReportGenerated }) => {
     }
   };
 
+  const sendTranscript = (command, finalTranscript) => {
+    const socket = streamRef.current;
+    if (socket?.readyState === WebSocket.OPEN && command.trim()) {
+      socket.send(JSON.stringify({ command, finalTranscript }));
+    }
+  };
+
+  const closeStream = () => {
+    if (streamRef.current) {
+      streamRef.current.close();
+      streamRef.current = null;
+    }
+  };
+
+  const handleStreamEvent = (event) => {
+    if (event.type === 'result') {
+      closeStream();
+      setIsProcessing(false);
+      handleResponse(event.response);
+    }
+  };
+
+  const handleResponse = (data) => {
+    setResponse(data);
+
+    if (data.success) {
+      speak(`Report generated successfully. Found ${data.recordCount || 0} records.`);
+      onReportGenerated(data);
+    } else {
+      speak(`Error: ${data.message}`);
+    }
+  };
+
   const processVoiceCommand = async (command) => {
     if (!command.trim()) return;
 
@@ -115,14 +160,7 @@ const VoiceRecorder = ({ onReportGenerated }) => {
     
     try {
       const result = await voiceApi.processVoiceCommand({ command });
-      setResponse(result.data);
-      
-      if (result.data.success) {
-        speak(`Report generated successfully. Found ${result.data.salesData?.length || 0} records.`);
-        onReportGenerated(result.data);
-      } else {
-        speak(`Error: ${result.data.message}`);
-      }
+      handleResponse(result.data);
     } catch (error) {
       console.error('Error processing voice command:', error);
       setError('Failed to process voice command. Please try again.');
@@ -346,7 +384,7 @@ const VoiceRecorder = ({ onReportGenerated }) => {
                 </Box>
 
                 <Typography variant="body2" color="text.secondary">
-                  Found {response.salesData?.length || 0} sales records
+                  Found {response.recordCount || 0} sales records
                 </Typography>
 
                 {response.reportUrl && (
@@ -1,6 +1,7 @@
 import axios from 'axios';
 
 const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+const WS_BASE_URL = API_BASE_URL.replace(/^http/, 'ws');
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -15,11 +16,35 @@ export const voiceApi = {
   testEndpoint: () => api.get('/voice/test'),
 };
 
+// Streams transcripts while the user speaks so the backend can start the likely query early.
+// Send { command, finalTranscript } for every recognition result; the final one is answered with a "result" event
+export const openTranscriptStream = (onEvent) => {
+  const socket = new WebSocket(`${WS_BASE_URL}/voice/stream`);
+  socket.onmessage = (message) => onEvent(JSON.parse(message.data));
+  return socket;
+};
+
+// The sales list endpoints return keyset pages of { items, hasMore, nextCursor }.
+// Follows nextCursor until the last page and resolves to every row
+const PAGE_LIMIT = 5000;
+
+const fetchAllPages = async (url, params = {}) => {
+  const items = [];
+  let cursor = null;
+  do {
+    const response = await api.get(url, { params: { ...params, cursor, limit: PAGE_LIMIT } });
+    items.push(...response.data.items);
+    cursor = response.data.nextCursor;
+  } while (cursor);
+  return items;
+};
+
 // Sales Data API
 export const salesApi = {
-  getAllSalesData: () => api.get('/sales/data'),
-  getSalesDataByDateRange: (startDate, endDate) => 
-    api.get(`/sales/data/date-range?startDate=${startDate}&endDate=${endDate}`),
+  getSalesDataPage: (cursor, limit) => api.get('/sales/data', { params: { cursor, limit } }),
+  getAllSalesData: () => fetchAllPages('/sales/data'),
+  getSalesDataByDateRange: (startDate, endDate) =>
+    fetchAllPages('/sales/data/date-range', { startDate, endDate }),
   getSalesDataByCategory: (category) => api.get(`/sales/data/category/${category}`),
 };
 